@@ -0,0 +1,50 @@
+package hello.exception.reactive.api;
+
+import hello.exception.reactive.exception.UserException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@RestController
+public class ApiExceptionV3Controller {
+
+    /*
+    *   [ WebFlux 버전 ]
+    *
+    *   서블릿 버전(hello.exception.api.ApiExceptionV3Controller)과 경로, 응답이 같다.
+    *   예외를 던지는 대신 Mono 의 error 신호로 흘려보내고, ExControllerAdvice 의 @ExceptionHandler 가 처리한다.
+    * */
+
+    @GetMapping("/api3/members/{id}")
+    public Mono<MemberDto> getMember(@PathVariable("id") String id) {
+        return Mono.fromCallable(() -> findMember(id));
+    }
+
+    private MemberDto findMember(String id) {
+
+        if (id.equals("ex")) {
+            throw new RuntimeException("잘못된 사용자");
+        }
+        if (id.equals("bad")) {
+            throw new IllegalArgumentException("잘못된 입력 값");
+        }
+        if (id.equals("user-ex")) {
+            throw new UserException("사용자 오류");
+        }
+
+        return new MemberDto(id, "hello " + id);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class MemberDto {
+        private String memberId;
+        private String name;
+    }
+
+}
@@ -0,0 +1,12 @@
+package hello.exception.reactive.exhandler;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ErrorResult {
+    private String code;
+    private String message;
+}
+// 서블릿 버전(hello.exception.exhandler.ErrorResult)과 같은 모양의 API 오류 응답 객체이다.
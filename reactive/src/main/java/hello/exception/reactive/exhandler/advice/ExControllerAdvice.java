@@ -0,0 +1,49 @@
+package hello.exception.reactive.exhandler.advice;
+
+import hello.exception.reactive.exception.UserException;
+import hello.exception.reactive.exhandler.ErrorResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import reactor.core.publisher.Mono;
+
+/*
+*   [ WebFlux @RestControllerAdvice ]
+*
+*   서블릿 버전과 같은 예외 -> 상태 코드 매핑을 사용한다.
+*
+*   IllegalArgumentException -> 400, BAD
+*   UserException            -> 400, USER-EX
+*   Exception                -> 500, EX
+*
+*   WebFlux 에서는 @ExceptionHandler 가 Mono 를 반환할 수 있다. 응답 쓰기까지 이벤트 루프 위에서 논블로킹으로 처리된다.
+* */
+@Slf4j
+@RestControllerAdvice(basePackages = "hello.exception.reactive.api")
+public class ExControllerAdvice {
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public Mono<ErrorResult> illegalExHandler(IllegalArgumentException e) {
+        log.error("[exceptionHandler] ex", e);
+        return Mono.just(new ErrorResult("BAD", e.getMessage()));
+    }
+
+    @ExceptionHandler
+    public Mono<ResponseEntity<ErrorResult>> userExHandler(UserException e) {
+        log.error("[exceptionHandler] ex", e);
+        ErrorResult errorResult = new ErrorResult("USER-EX", e.getMessage());
+        return Mono.just(new ResponseEntity<>(errorResult, HttpStatus.BAD_REQUEST));
+    }
+
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    @ExceptionHandler
+    public Mono<ErrorResult> exHandler(Exception e) {
+        log.error("[exceptionHandler] ex", e);
+        return Mono.just(new ErrorResult("EX", "내부 오류"));
+    }
+
+}
@@ -0,0 +1,13 @@
+package hello.exception.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ReactiveExceptionApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
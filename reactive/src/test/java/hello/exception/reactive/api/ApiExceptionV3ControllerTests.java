@@ -0,0 +1,66 @@
+package hello.exception.reactive.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+/*
+*   서블릿 버전(/api3/members/{id} + ExControllerAdvice)과 같은 경로, 같은 ErrorResult 본문, 같은 상태 코드인지 확인한다.
+* */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ApiExceptionV3ControllerTests {
+
+	private static final ParameterizedTypeReference<Map<String, Object>> BODY = new ParameterizedTypeReference<>() {
+	};
+
+	@Autowired
+	WebTestClient webTestClient;
+
+	@Test
+	void member() {
+		get("spring")
+				.expectStatus().isOk()
+				.expectBody(BODY)
+				.isEqualTo(Map.of("memberId", "spring", "name", "hello spring"));
+	}
+
+	@Test
+	void illegalArgumentIsBadRequest() {
+		get("bad")
+				.expectStatus().isEqualTo(HttpStatus.BAD_REQUEST)
+				.expectBody(BODY)
+				.isEqualTo(Map.of("code", "BAD", "message", "잘못된 입력 값"));
+	}
+
+	@Test
+	void userExceptionIsBadRequest() {
+		get("user-ex")
+				.expectStatus().isEqualTo(HttpStatus.BAD_REQUEST)
+				.expectBody(BODY)
+				.isEqualTo(Map.of("code", "USER-EX", "message", "사용자 오류"));
+	}
+
+	@Test
+	void runtimeExceptionIsInternalServerError() {
+		get("ex")
+				.expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+				.expectBody(BODY)
+				.isEqualTo(Map.of("code", "EX", "message", "내부 오류"));
+	}
+
+	private WebTestClient.ResponseSpec get(String id) {
+		return webTestClient.get()
+				.uri("/api3/members/{id}", id)
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange();
+	}
+
+}
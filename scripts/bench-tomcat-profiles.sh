@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+#
+# Tomcat 성능 프로파일별로 애플리케이션을 띄우고 정상/오류 트래픽을 측정한다.
+#
+#   ./gradlew bootJar && scripts/bench-tomcat-profiles.sh
+#
+# 필요 : wrk (https://github.com/wg/wrk)
+# heavy-hitter 필터는 끈다. (켜두면 localhost 의 오류가 error-budget 을 넘은 뒤에는 429 응답만 재게 된다.)
+#
+set -euo pipefail
+
+JAR=${JAR:-$(ls build/libs/exception-*-SNAPSHOT.jar | grep -v plain | head -1)}
+PORT=${PORT:-8080}
+DURATION=${DURATION:-30s}
+THREADS=${THREADS:-4}
+CONNECTIONS=${CONNECTIONS:-200}
+PROFILES=${PROFILES:-"default throughput low-latency error-storm"}
+
+SUCCESS_URL="http://localhost:${PORT}/api3/members/spring"
+ERROR_URL="http://localhost:${PORT}/api3/members/ex"
+
+for profile in ${PROFILES}; do
+  java -jar "${JAR}" --server.port="${PORT}" --hello.exception.tomcat.profile="${profile}" \
+       --hello.exception.heavy-hitter.enabled=false --logging.level.root=warn > "build/bench-${profile}.log" 2>&1 &
+  pid=$!
+  trap 'kill ${pid} 2>/dev/null || true' EXIT
+
+  until curl -s -o /dev/null "${SUCCESS_URL}"; do sleep 0.5; done
+
+  echo "=== profile=${profile} success"
+  wrk -t"${THREADS}" -c"${CONNECTIONS}" -d"${DURATION}" --latency "${SUCCESS_URL}"
+  echo "=== profile=${profile} error"
+  wrk -t"${THREADS}" -c"${CONNECTIONS}" -d"${DURATION}" --latency -H "Accept: application/json" "${ERROR_URL}"
+  echo "=== profile=${profile} mixed (success + error at the same time)"
+  wrk -t"${THREADS}" -c"$((CONNECTIONS / 2))" -d"${DURATION}" --latency "${SUCCESS_URL}" &
+  success_pid=$!
+  wrk -t"${THREADS}" -c"$((CONNECTIONS / 2))" -d"${DURATION}" --latency -H "Accept: application/json" "${ERROR_URL}"
+  wait "${success_pid}"
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+done
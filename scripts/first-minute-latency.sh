@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+#
+# 배포 직후 1분 동안의 오류 경로 지연 시간을 워밍업 없이 / 워밍업 후에 비교한다.
+# 로드 밸런서처럼 /internal/ready 가 200 이 되는 순간부터 트래픽을 보낸다.
+#
+#   ./gradlew bootJar && scripts/first-minute-latency.sh
+#
+# 필요 : wrk (https://github.com/wg/wrk)
+#
+set -euo pipefail
+
+JAR=${JAR:-$(ls build/libs/exception-*-SNAPSHOT.jar | grep -v plain | head -1)}
+PORT=${PORT:-8080}
+THREADS=${THREADS:-4}
+CONNECTIONS=${CONNECTIONS:-50}
+
+for warmup in false true; do
+  java -jar "${JAR}" --server.port="${PORT}" --hello.exception.warmup.enabled="${warmup}" \
+       --hello.exception.heavy-hitter.enabled=false --logging.level.root=warn > "build/first-minute-${warmup}.log" 2>&1 &
+  pid=$!
+  trap 'kill ${pid} 2>/dev/null || true' EXIT
+
+  started=$(date +%s%N)
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:${PORT}/internal/ready")" = "200" ]; do sleep 0.1; done
+  echo "=== warmup=${warmup} ready after $(( ($(date +%s%N) - started) / 1000000 ))ms"
+
+  for path in /api3/members/ex /api/members/user-ex /error-ex; do
+    echo "--- warmup=${warmup} ${path} (first 20s)"
+    wrk -t"${THREADS}" -c"${CONNECTIONS}" -d20s --latency -H "Accept: application/json" "http://localhost:${PORT}${path}"
+  done
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+done
@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+#
+# 서블릿(Spring MVC, 8080) 버전과 WebFlux(Netty, 8081) 버전의 예외 API 처리량과 tail latency 를 비교한다.
+# 같은 경로(/api3/members/{id})에 정상/BAD/USER-EX/EX 요청을 보낸다.
+#
+#   ./gradlew bootJar :reactive:bootJar && scripts/load-compare.sh
+#
+# 필요 : wrk (https://github.com/wg/wrk)
+# 서블릿 쪽 heavy-hitter 필터는 끈다. (켜두면 오류 경로 대신 429 응답을 비교하게 된다.)
+#
+set -euo pipefail
+
+SERVLET_JAR=${SERVLET_JAR:-$(ls build/libs/exception-*-SNAPSHOT.jar | grep -v plain | head -1)}
+REACTIVE_JAR=${REACTIVE_JAR:-$(ls reactive/build/libs/reactive-*-SNAPSHOT.jar | grep -v plain | head -1)}
+DURATION=${DURATION:-30s}
+THREADS=${THREADS:-4}
+CONNECTIONS=${CONNECTIONS:-200}
+IDS=${IDS:-"spring bad user-ex ex"}
+
+java -jar "${SERVLET_JAR}" --server.port=8080 --hello.exception.heavy-hitter.enabled=false \
+     --logging.level.root=warn > build/load-servlet.log 2>&1 &
+servlet_pid=$!
+java -jar "${REACTIVE_JAR}" --server.port=8081 --logging.level.root=warn > build/load-reactive.log 2>&1 &
+reactive_pid=$!
+trap 'kill ${servlet_pid} ${reactive_pid} 2>/dev/null || true' EXIT
+
+for port in 8080 8081; do
+  until curl -s -o /dev/null "http://localhost:${port}/api3/members/spring"; do sleep 0.5; done
+done
+
+for id in ${IDS}; do
+  for target in "servlet 8080" "reactive 8081"; do
+    set -- ${target}
+    echo "=== ${1} /api3/members/${id}"
+    wrk -t"${THREADS}" -c"${CONNECTIONS}" -d"${DURATION}" --latency \
+        -H "Accept: application/json" "http://localhost:${2}/api3/members/${id}"
+  done
+done
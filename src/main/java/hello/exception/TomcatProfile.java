@@ -0,0 +1,64 @@
+package hello.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+/*
+*   [ Tomcat 성능 프로파일 ]
+*
+*   throughput  : 스레드와 연결을 넉넉하게, keep-alive 를 길게 유지해서 처리량을 최대로 한다.
+*   low-latency : 스레드를 미리 띄워두고 대기열(acceptCount)을 짧게 해서 줄 서서 기다리는 시간을 줄인다.
+*   error-storm : 오류가 쏟아질 때를 가정한다. 연결을 빨리 회수하고, ErrorReportValve 가 스택 트레이스가 담긴
+*                 HTML 보고서를 만들지 않도록 해서 오류 응답 한 건의 비용을 줄인다.
+*
+*   default 는 아무것도 바꾸지 않는다. (Spring Boot server.tomcat.* 설정을 그대로 사용)
+*   그래서 default 에는 값이 없고, 값을 읽으면 IllegalStateException 이 난다. -> isCustomized() 를 먼저 확인한다.
+* */
+public enum TomcatProfile {
+
+    DEFAULT(null),
+    THROUGHPUT(new Settings(400, 50, 500, 10000, 20000, 30000, 1000, true, 64 * 1024, 16 * 1024, false, false)),
+    LOW_LATENCY(new Settings(200, 100, 50, 2000, 5000, 5000, 100, true, 16 * 1024, 4 * 1024, false, false)),
+    ERROR_STORM(new Settings(200, 25, 100, 4000, 5000, 2000, 50, true, 8 * 1024, 2 * 1024, false, false));
+
+    private final Settings settings;
+
+    TomcatProfile(Settings settings) {
+        this.settings = settings;
+    }
+
+    public boolean isCustomized() {
+        return settings != null;
+    }
+
+    public Settings getSettings() {
+        if (settings == null) {
+            throw new IllegalStateException(this + " does not change the Tomcat settings");
+        }
+        return settings;
+    }
+
+    public static TomcatProfile of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Settings {
+
+        private final int maxThreads;
+        private final int minSpareThreads;
+        private final int acceptCount;
+        private final int maxConnections;
+        private final int connectionTimeout;
+        private final int keepAliveTimeout;
+        private final int maxKeepAliveRequests;
+        private final boolean tcpNoDelay;
+        private final int socketBufferSize;
+        private final int responseBufferSize;
+        private final boolean showReport;
+        private final boolean showServerInfo;
+    }
+}
@@ -1,12 +1,30 @@
 package hello.exception;
 
+import hello.exception.bulkhead.ErrorBulkhead;
+import hello.exception.bulkhead.ErrorBulkheadFilter;
+import hello.exception.deadline.DeadlineFilter;
+import hello.exception.deadline.DeadlineInterceptor;
+import hello.exception.deadline.DeadlineResolver;
+import hello.exception.deadline.TimerWheel;
+import hello.exception.filter.HeavyHitterFilter;
 import hello.exception.filter.LogFilter;
+import hello.exception.interceptor.CompiledPathMatcher;
 import hello.exception.interceptor.LogInterceptor;
+import hello.exception.interceptor.PathMatchingInterceptor;
+import hello.exception.metrics.ErrorCounters;
 import hello.exception.resolver.MyHandlerExceptionResolver;
 import hello.exception.resolver.UserHandlerExceptionResolver;
+import hello.exception.timeline.SlowestRequests;
+import hello.exception.timeline.TimelineFilter;
+import hello.exception.warmup.WarmupRequestFilter;
+import hello.exception.timeline.TimelineResolver;
+import hello.exception.timeline.TimelineViewResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -14,22 +32,33 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import java.util.List;
+import java.util.Set;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ErrorCounters errorCounters;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new LogInterceptor())
-                .order(1)
-                .addPathPatterns("/**")
-                .excludePathPatterns("/css/**", "*.ico", "/error", "/error-page/**");//오류 페이지 경로
+        CompiledPathMatcher logPaths = CompiledPathMatcher.compile(
+                List.of("/**"),
+                List.of("/css/**", "*.ico", "/error", "/error-page/**"));//오류 페이지 경로
+
+        registry.addInterceptor(new DeadlineInterceptor())
+                .order(0);
+
+        registry.addInterceptor(new PathMatchingInterceptor(new LogInterceptor(), logPaths))
+                .order(1);
     }
 
     @Override
     public void extendHandlerExceptionResolvers(List<HandlerExceptionResolver> resolvers) {
-        resolvers.add(new MyHandlerExceptionResolver());
-        resolvers.add(new UserHandlerExceptionResolver());
+        resolvers.add(0, new TimelineResolver());
+        resolvers.add(1, new DeadlineResolver());
+        resolvers.add(new MyHandlerExceptionResolver(errorCounters));
+        resolvers.add(new UserHandlerExceptionResolver(errorCounters));
     }
 
     //    @Bean
@@ -41,4 +70,96 @@ public class WebConfig implements WebMvcConfigurer {
         filterRegistrationBean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ERROR);
         return filterRegistrationBean;
     }
+
+    @Bean
+    public HeavyHitterFilter heavyHitterFilter(
+            @Value("${hello.exception.heavy-hitter.depth:4}") int depth,
+            @Value("${hello.exception.heavy-hitter.width:4096}") int width,
+            @Value("${hello.exception.heavy-hitter.top-k:16}") int topK,
+            @Value("${hello.exception.heavy-hitter.error-budget:100}") long errorBudget,
+            @Value("${hello.exception.heavy-hitter.decay-interval-millis:10000}") long decayIntervalMillis,
+            @Value("${hello.exception.heavy-hitter.trusted-proxies:127.0.0.1,0:0:0:0:0:0:0:1}") Set<String> trustedProxies) {
+        return new HeavyHitterFilter(depth, width, topK, errorBudget, decayIntervalMillis, trustedProxies);
+    }
+
+    @Bean
+    public FilterRegistrationBean<HeavyHitterFilter> heavyHitterFilterRegistration(
+            HeavyHitterFilter heavyHitterFilter,
+            @Value("${hello.exception.heavy-hitter.enabled:true}") boolean enabled) {
+        FilterRegistrationBean<HeavyHitterFilter> filterRegistrationBean = new FilterRegistrationBean<>(heavyHitterFilter);
+        filterRegistrationBean.setEnabled(enabled);
+        filterRegistrationBean.setOrder(0); // LogFilter(1) 보다 먼저
+        filterRegistrationBean.addUrlPatterns("/*");
+        filterRegistrationBean.setDispatcherTypes(DispatcherType.REQUEST);
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public FilterRegistrationBean<WarmupRequestFilter> warmupRequestFilterRegistration(
+            @Value("${hello.exception.warmup.enabled:false}") boolean enabled) {
+        FilterRegistrationBean<WarmupRequestFilter> filterRegistrationBean = new FilterRegistrationBean<>(new WarmupRequestFilter());
+        filterRegistrationBean.setEnabled(enabled);
+        filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE); // 가장 먼저
+        filterRegistrationBean.addUrlPatterns("/*");
+        filterRegistrationBean.setDispatcherTypes(DispatcherType.REQUEST);
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public SlowestRequests slowestRequests(
+            @Value("${hello.exception.timeline.slowest-per-endpoint:10}") int perEndpoint,
+            @Value("${hello.exception.timeline.max-endpoints:256}") int maxEndpoints) {
+        return new SlowestRequests(perEndpoint, maxEndpoints);
+    }
+
+    @Bean
+    public TimelineViewResolver timelineViewResolver() {
+        return new TimelineViewResolver();
+    }
+
+    @Bean
+    public FilterRegistrationBean<TimelineFilter> timelineFilterRegistration(
+            SlowestRequests slowestRequests,
+            @Value("${hello.exception.timeline.enabled:true}") boolean enabled) {
+        FilterRegistrationBean<TimelineFilter> filterRegistrationBean = new FilterRegistrationBean<>(new TimelineFilter(slowestRequests));
+        filterRegistrationBean.setEnabled(enabled);
+        filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1); // WarmupRequestFilter 다음
+        filterRegistrationBean.addUrlPatterns("/*");
+        filterRegistrationBean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ERROR);
+        return filterRegistrationBean;
+    }
+
+    @Bean(destroyMethod = "close")
+    public TimerWheel deadlineTimerWheel(
+            @Value("${hello.exception.deadline.tick-millis:10}") long tickMillis,
+            @Value("${hello.exception.deadline.wheel-size:512}") int wheelSize) {
+        return new TimerWheel(tickMillis, wheelSize);
+    }
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilterRegistration(
+            TimerWheel deadlineTimerWheel,
+            @Value("${hello.exception.deadline.enabled:true}") boolean enabled,
+            @Value("${hello.exception.deadline.default-millis:0}") long defaultMillis,
+            @Value("${hello.exception.deadline.routes:}") String routes) {
+        FilterRegistrationBean<DeadlineFilter> filterRegistrationBean =
+                new FilterRegistrationBean<>(new DeadlineFilter(deadlineTimerWheel, defaultMillis, routes));
+        filterRegistrationBean.setEnabled(enabled);
+        filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 2); // TimelineFilter 다음
+        filterRegistrationBean.addUrlPatterns("/*");
+        filterRegistrationBean.setDispatcherTypes(DispatcherType.REQUEST);
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ErrorBulkheadFilter> errorBulkheadFilterRegistration(
+            ErrorBulkhead errorBulkhead) {
+        // hello.exception.error-bulkhead.enabled=false 이면 ErrorBulkhead.tryAcquire() 가 항상 통과시킨다.
+        FilterRegistrationBean<ErrorBulkheadFilter> filterRegistrationBean =
+                new FilterRegistrationBean<>(new ErrorBulkheadFilter(errorBulkhead));
+        filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 3); // ERROR 디스패치에서 TimelineFilter 다음
+        filterRegistrationBean.addUrlPatterns("/*");
+        filterRegistrationBean.setDispatcherTypes(DispatcherType.ERROR);
+        return filterRegistrationBean;
+    }
 }
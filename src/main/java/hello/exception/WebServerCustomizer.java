@@ -1,14 +1,44 @@
 package hello.exception;
 
-import org.springframework.boot.web.server.ConfigurableWebServerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.Container;
+import org.apache.catalina.Context;
+import org.apache.catalina.Lifecycle;
+import org.apache.catalina.Valve;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.valves.ErrorReportValve;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.ErrorPage;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
-// BasicErrorController 를 사용하려면 @Component 를 주석처리 해야 한다.
-//@Component
-public class WebServerCustomizer implements WebServerFactoryCustomizer<ConfigurableWebServerFactory> {
+/*
+*   [ Tomcat 성능 프로파일 ]
+*
+*   hello.exception.tomcat.profile 로 프로파일을 고른다. (default, throughput, low-latency, error-storm)
+*   프로파일마다 커넥터/스레드 풀, keep-alive, 소켓 버퍼, ErrorReportValve 설정을 한 묶음으로 적용한다. -> TomcatProfile 참고
+*
+*   오류 페이지(ErrorPage) 등록은 BasicErrorController 와 함께 쓸 수 없으므로
+*   hello.exception.error-pages.enabled=true 일 때만 등록한다.
+*   (예전에는 @Component 를 주석 처리해서 껐다 켰다.)
+* */
+@Slf4j
+@Component
+public class WebServerCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private final TomcatProfile profile;
+    private final boolean errorPagesEnabled;
+
+    public WebServerCustomizer(@Value("${hello.exception.tomcat.profile:default}") String profile,
+                               @Value("${hello.exception.error-pages.enabled:false}") boolean errorPagesEnabled) {
+        this.profile = TomcatProfile.of(profile);
+        this.errorPagesEnabled = errorPagesEnabled;
+    }
 
     /*
     *   [ HTML 페이지 VS API Error ]
@@ -32,7 +62,62 @@ public class WebServerCustomizer implements WebServerFactoryCustomizer<Configura
     * */
 
     @Override
-    public void customize(ConfigurableWebServerFactory factory) {
+    public void customize(TomcatServletWebServerFactory factory) {
+        log.info("tomcat profile={}", profile);
+
+        if (profile.isCustomized()) {
+            factory.addConnectorCustomizers(this::customizeConnector);
+            factory.addContextLifecycleListeners(event -> {
+                if (Lifecycle.BEFORE_START_EVENT.equals(event.getType())) {
+                    customizeErrorReportValve(((Context) event.getLifecycle()).getParent());
+                }
+            });
+        }
+
+        if (errorPagesEnabled) {
+            addErrorPages(factory);
+        }
+    }
+
+    private void customizeConnector(Connector connector) {
+        TomcatProfile.Settings settings = profile.getSettings();
+        ProtocolHandler handler = connector.getProtocolHandler();
+        if (handler instanceof AbstractProtocol) {
+            AbstractProtocol<?> protocol = (AbstractProtocol<?>) handler;
+            protocol.setMaxThreads(settings.getMaxThreads());
+            protocol.setMinSpareThreads(settings.getMinSpareThreads());
+            protocol.setAcceptCount(settings.getAcceptCount());
+            protocol.setMaxConnections(settings.getMaxConnections());
+            protocol.setConnectionTimeout(settings.getConnectionTimeout());
+            protocol.setKeepAliveTimeout(settings.getKeepAliveTimeout());
+            protocol.setTcpNoDelay(settings.isTcpNoDelay());
+        }
+        if (handler instanceof AbstractHttp11Protocol) {
+            ((AbstractHttp11Protocol<?>) handler).setMaxKeepAliveRequests(settings.getMaxKeepAliveRequests());
+        }
+
+        connector.setProperty("socket.rxBufSize", String.valueOf(settings.getSocketBufferSize()));
+        connector.setProperty("socket.txBufSize", String.valueOf(settings.getSocketBufferSize()));
+        connector.setProperty("socket.appWriteBufSize", String.valueOf(settings.getResponseBufferSize()));
+    }
+
+    /*
+    *   ErrorReportValve 는 Host 에 등록되고, Host 가 시작될 때 만들어진다.
+    *   Context 가 시작되기 직전(BEFORE_START)에는 이미 Host 파이프라인에 들어 있으므로 이때 설정을 바꾼다.
+    *   (Context 에 따로 ErrorReportValve 를 추가하면 StandardHostValve 의 오류 페이지 처리보다 먼저 응답을 써버린다.)
+    * */
+    private void customizeErrorReportValve(Container host) {
+        TomcatProfile.Settings settings = profile.getSettings();
+        for (Valve valve : host.getPipeline().getValves()) {
+            if (valve instanceof ErrorReportValve) {
+                ErrorReportValve errorReportValve = (ErrorReportValve) valve;
+                errorReportValve.setShowReport(settings.isShowReport());
+                errorReportValve.setShowServerInfo(settings.isShowServerInfo());
+            }
+        }
+    }
+
+    private void addErrorPages(TomcatServletWebServerFactory factory) {
 
         ErrorPage errorPage404 = new ErrorPage(HttpStatus.NOT_FOUND, "/error-page/404");
         ErrorPage errorPage500 = new ErrorPage(HttpStatus.INTERNAL_SERVER_ERROR, "/error-page/500");
@@ -43,7 +128,7 @@ public class WebServerCustomizer implements WebServerFactoryCustomizer<Configura
     }
 
     /*
-    *   WebServerCustomizer가 다시 사용되도록 하기 위해 @Component 애노테이션에 있는 주석을 풀자
+    *   WebServerCustomizer가 다시 사용되도록 하기 위해 hello.exception.error-pages.enabled=true 로 설정하자
     *   이제 WAS에 예외가 전달되거나, response.sendError()가 호출되면 위에 등록한 예외 페이지 경로가 호출된다.
     *
     * */
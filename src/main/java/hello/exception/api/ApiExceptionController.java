@@ -18,7 +18,6 @@ public class ApiExceptionController {
 
     @GetMapping("/api/members/{id}")
     public MemberDto getMember(@PathVariable("id") String id) {
-
         if (id.equals("ex")) {
             throw new RuntimeException("잘못된 사용자");
         }
@@ -12,7 +12,6 @@ public class ApiExceptionV2Controller {
 
     @GetMapping("/api2/members/{id}")
     public MemberDto getMember(@PathVariable("id") String id) {
-
         if (id.equals("ex")) {
             throw new RuntimeException("잘못된 사용자");
         }
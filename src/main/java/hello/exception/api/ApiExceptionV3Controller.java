@@ -14,7 +14,6 @@ public class ApiExceptionV3Controller {
 
     @GetMapping("/api3/members/{id}")
     public MemberDto getMember(@PathVariable("id") String id) {
-
         if (id.equals("ex")) {
             throw new RuntimeException("잘못된 사용자");
         }
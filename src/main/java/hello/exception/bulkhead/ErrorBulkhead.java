@@ -0,0 +1,64 @@
+package hello.exception.bulkhead;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+*   [ 오류 처리 bulkhead ]
+*
+*   장애 상황에서 RuntimeException 이 쏟아지면 Tomcat 워커들이 스택 트레이스 로그, /error 재요청,
+*   Thymeleaf 오류 화면 렌더링에 묶여서 정상 요청이 뒤에서 기다리게 된다.
+*
+*   오류 처리에만 쓰는 permit 을 따로 두고, permit 이 없으면 기다리지 않고 바로 가벼운 대체 처리로 넘어간다.
+*   - ErrorBulkheadFilter : ERROR 재요청(오류 페이지 컨트롤러 + 렌더링) -> 미리 만들어 둔 정적 응답
+*   - ExControllerAdvice  : 스택 트레이스 로그 -> 메시지 한 줄 로그
+* */
+@Component
+public class ErrorBulkhead {
+
+    private final boolean enabled;
+    private final int permits;
+    private final Semaphore semaphore;
+    private final LongAdder saturated = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ErrorBulkhead(@Value("${hello.exception.error-bulkhead.enabled:true}") boolean enabled,
+                         @Value("${hello.exception.error-bulkhead.permits:16}") int permits) {
+        this.enabled = enabled;
+        this.permits = permits;
+        this.semaphore = new Semaphore(permits);
+    }
+
+    /*
+    *   permit 을 얻지 못하면 saturated 를 센다. 호출한 쪽은 대체 처리를 하고 fallback() 을 부른다.
+    *   기능이 꺼져 있으면 항상 통과시킨다.
+    * */
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        saturated.increment();
+        return false;
+    }
+
+    public void release() {
+        if (enabled) {
+            semaphore.release();
+        }
+    }
+
+    public void fallback() {
+        fallbacks.increment();
+    }
+
+    public ErrorBulkheadStatus status() {
+        int available = semaphore.availablePermits();
+        return new ErrorBulkheadStatus(permits, permits - available, saturated.sum(), fallbacks.sum());
+    }
+}
@@ -0,0 +1,77 @@
+package hello.exception.bulkhead;
+
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class ErrorBulkheadFilter implements Filter {
+
+    /*
+    *   DispatcherType.ERROR 에만 등록한다.
+    *   permit 이 있으면 평소처럼 오류 페이지 컨트롤러와 뷰 렌더링을 진행하고,
+    *   없으면 Spring MVC 를 거치지 않고 미리 만들어 둔 최소한의 오류 응답을 쓴다.
+    *   응답 바디는 실제 상태 코드로 미리 만들어 둔다. (400 ~ 599 의 HttpStatus 마다 JSON, HTML 하나씩)
+    *   JSON 은 ErrorResult 와 같은 모양으로 code 에 상태 코드, message 에 reason phrase 를 넣는다.
+    *   HttpStatus 에 없는 코드는 4xx / 5xx 공통 바디를 쓴다.
+    * */
+
+    private static final int FIRST = 400;
+    private static final byte[][] JSON_BODIES = new byte[200][];
+    private static final byte[][] HTML_BODIES = new byte[200][];
+
+    static {
+        for (int status = FIRST; status < FIRST + 200; status++) {
+            HttpStatus httpStatus = HttpStatus.resolve(status);
+            String code = httpStatus != null ? String.valueOf(status) : (status < 500 ? "4xx" : "5xx");
+            String reason = httpStatus != null ? httpStatus.getReasonPhrase() : (status < 500 ? "Client Error" : "Server Error");
+            JSON_BODIES[status - FIRST] = ("{\"code\":\"" + code + "\",\"message\":\"" + reason + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            HTML_BODIES[status - FIRST] = ("<!DOCTYPE HTML><html><head><meta charset=\"utf-8\"></head><body><h2>"
+                    + code + " " + reason + "</h2></body></html>").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final ErrorBulkhead bulkhead;
+
+    public ErrorBulkheadFilter(ErrorBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (bulkhead.tryAcquire()) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                bulkhead.release();
+            }
+            return;
+        }
+
+        bulkhead.fallback();
+        writeStatic((HttpServletRequest) request, (HttpServletResponse) response);
+    }
+
+    private void writeStatic(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Object status = request.getAttribute(RequestDispatcher.ERROR_STATUS_CODE);
+        if (status instanceof Integer) {
+            response.setStatus((Integer) status);
+        }
+        int index = response.getStatus() - FIRST;
+        if (index < 0 || index >= JSON_BODIES.length) {
+            index = HttpStatus.INTERNAL_SERVER_ERROR.value() - FIRST;
+        }
+
+        String accept = request.getHeader("Accept");
+        boolean html = accept != null && accept.contains("text/html");
+        byte[] body = html ? HTML_BODIES[index] : JSON_BODIES[index];
+
+        response.setContentType(html ? "text/html;charset=UTF-8" : "application/json;charset=UTF-8");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
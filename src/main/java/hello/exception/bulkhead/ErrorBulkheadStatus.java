@@ -0,0 +1,14 @@
+package hello.exception.bulkhead;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ErrorBulkheadStatus {
+    private int permits;
+    private int inFlight;
+    private long saturated;
+    private long fallbacks;
+}
+// 오류 처리 bulkhead 상태(/internal/error-bulkhead)를 API 응답으로 사용하는 객체이다.
@@ -0,0 +1,90 @@
+package hello.exception.deadline;
+
+import hello.exception.exception.DeadlineExceededException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/*
+*   [ Deadline ]
+*
+*   요청 한 건의 처리 마감 시각. DeadlineFilter 가 요청을 처음 받을 때 만들고 TimerWheel 에 등록한다.
+*   마감 시각이 지나면 TimerWheel 스레드가 expired 를 true 로 바꾼다.
+*
+*   확인 지점에서 Deadline.check() 가 DeadlineExceededException 을 던져 처리를 멈춘다.
+*   시계를 읽지 않고 volatile 필드 하나만 읽으므로 자주 불러도 부담이 없다.
+*
+*   [ 확인 지점 ] -> 마감이 지나면 여기서 멈추고 503 으로 응답한다.
+*   - DeadlineInterceptor.preHandle      : 핸들러를 부르기 전
+*   - DeadlineResponseBodyAdvice         : 핸들러가 끝난 뒤 JSON 바디를 쓰기 전 (늦게 끝난 결과는 버린다)
+*   - DeadlineInterceptor.postHandle     : 핸들러가 끝난 뒤 뷰를 렌더링하기 전
+*   - DeadlineResolver                   : 예외 처리(@ExceptionHandler, sendError -> /error) 전
+*
+*   [ 멈추지 않는 것 ]
+*   - 핸들러가 실행되는 도중. Tomcat 워커 스레드를 interrupt 하지 않으므로(NIO 채널이 닫힐 수 있다)
+*     오래 걸리는 핸들러는 단계 사이에서 직접 Deadline.check() 를 불러야 한다.
+*   - 이미 시작된 뷰 렌더링, 바디 쓰기
+*   - ERROR 디스패치(/error). DeadlineFilter 는 REQUEST 에만 등록되어 있고 그때는 deadline 이 풀려 있다.
+* */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private static final byte[] SERVICE_UNAVAILABLE_BODY =
+            "{\"code\":\"DEADLINE\",\"message\":\"요청 처리 시간이 초과되었습니다\"}".getBytes(StandardCharsets.UTF_8);
+
+    final long deadlineNanos;
+    long rounds; // TimerWheel 스레드만 사용한다.
+
+    private volatile boolean expired;
+    private volatile boolean cancelled;
+
+    Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static void check() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.expired) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    public static boolean isExpired() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null && deadline.expired;
+    }
+
+    public static void writeServiceUnavailable(HttpServletResponse response) throws IOException {
+        response.reset(); // 이미 getWriter() 를 썼어도 getOutputStream() 을 쓸 수 있도록 상태까지 초기화한다.
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentType("application/json;charset=UTF-8");
+        response.setContentLength(SERVICE_UNAVAILABLE_BODY.length);
+        response.getOutputStream().write(SERVICE_UNAVAILABLE_BODY);
+    }
+
+    static void bind(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    boolean expired() {
+        return expired;
+    }
+
+    void expire() {
+        expired = true;
+    }
+
+    boolean cancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+}
@@ -0,0 +1,114 @@
+package hello.exception.deadline;
+
+import hello.exception.exception.DeadlineExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+public class DeadlineFilter implements Filter {
+
+    /*
+    *   [ 요청 deadline ]
+    *
+    *   요청을 처음 받을 때(DispatcherType.REQUEST) deadline 을 정한다.
+    *   1. 경로별 기본값 (hello.exception.deadline.routes=/api/members/=2000,...  앞부분이 일치하는 가장 긴 경로)
+    *   2. 없으면 전체 기본값 (0 이면 deadline 없음)
+    *   3. 요청 헤더(X-Request-Deadline-Ms : 지금부터 몇 ms 안에 끝내야 하는지)는 위 값보다 짧을 때만 쓴다.
+    *      클라이언트가 서버 설정보다 오래 붙잡아 둘 수는 없다. 0 이하나 숫자가 아닌 값은 무시한다.
+    *
+    *   deadline 이 지난 요청은 확인 지점(Deadline.check(), DeadlineResolver)에서 멈추고,
+    *   응답이 아직 나가지 않았으면 미리 만들어 둔 503 ErrorResult 로 응답한다.
+    * */
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline-Ms";
+
+    private final TimerWheel timerWheel;
+    private final long defaultMillis;
+    private final String[] routePrefixes;
+    private final long[] routeMillis;
+
+    public DeadlineFilter(TimerWheel timerWheel, long defaultMillis, String routes) {
+        this.timerWheel = timerWheel;
+        this.defaultMillis = defaultMillis;
+
+        Map<String, Long> parsed = parseRoutes(routes);
+        this.routePrefixes = parsed.keySet().toArray(new String[0]);
+        this.routeMillis = parsed.values().stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        long timeoutMillis = timeoutOf(httpRequest);
+        if (timeoutMillis <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Deadline deadline = timerWheel.schedule(timeoutMillis);
+        Deadline.bind(deadline);
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            if (!deadline.expired() || !(e instanceof DeadlineExceededException || e.getCause() instanceof DeadlineExceededException)) {
+                throw e;
+            }
+        } finally {
+            deadline.cancel();
+            Deadline.unbind();
+        }
+
+        if (deadline.expired() && !httpResponse.isCommitted()) {
+            log.info("deadline exceeded {} {}ms", httpRequest.getRequestURI(), timeoutMillis);
+            Deadline.writeServiceUnavailable(httpResponse);
+        }
+    }
+
+    long timeoutOf(HttpServletRequest request) {
+        long configured = configuredTimeoutOf(request.getRequestURI());
+
+        String header = request.getHeader(DEADLINE_HEADER);
+        if (StringUtils.hasText(header)) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0 && (configured <= 0 || requested < configured)) {
+                    return requested;
+                }
+            } catch (NumberFormatException e) {
+                log.debug("invalid {} header {}", DEADLINE_HEADER, header);
+            }
+        }
+        return configured;
+    }
+
+    private long configuredTimeoutOf(String uri) {
+        int best = -1;
+        for (int i = 0; i < routePrefixes.length; i++) {
+            if (uri.startsWith(routePrefixes[i]) && (best < 0 || routePrefixes[i].length() > routePrefixes[best].length())) {
+                best = i;
+            }
+        }
+        return best >= 0 ? routeMillis[best] : defaultMillis;
+    }
+
+    private static Map<String, Long> parseRoutes(String routes) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String route : StringUtils.commaDelimitedListToStringArray(routes)) {
+            int eq = route.lastIndexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("deadline route must be <path prefix>=<millis>: " + route);
+            }
+            result.put(route.substring(0, eq).trim(), Long.parseLong(route.substring(eq + 1).trim()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package hello.exception.deadline;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/*
+*   핸들러를 부르기 전(preHandle)과 핸들러가 돌아온 뒤 뷰를 렌더링하기 전(postHandle)에 deadline 을 확인한다.
+*   여기서 던진 DeadlineExceededException 은 DispatcherServlet 이 ExceptionResolver 체인으로 넘기고,
+*   DeadlineResolver 가 503 으로 응답한다.
+* */
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Deadline.check();
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        Deadline.check();
+    }
+}
@@ -0,0 +1,31 @@
+package hello.exception.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+*   ExceptionResolver 체인 앞쪽에서 deadline 이 지났는지 확인한다.
+*   지났으면 어떤 예외든 더 처리하지 않고(@ExceptionHandler, sendError -> /error 재요청 없이) 바로 503 으로 응답한다.
+* */
+@Slf4j
+public class DeadlineResolver implements HandlerExceptionResolver {
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!Deadline.isExpired() || response.isCommitted()) {
+            return null;
+        }
+        try {
+            Deadline.writeServiceUnavailable(response);
+            return new ModelAndView();
+        } catch (IOException e) {
+            log.error("resolver ex", e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package hello.exception.deadline;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/*
+*   @ResponseBody, ResponseEntity 핸들러는 postHandle 전에 응답을 써버리므로
+*   핸들러가 돌아온 뒤 메시지 컨버터가 바디를 쓰기 직전에 deadline 을 확인한다.
+*   마감이 지난 뒤에 끝난 핸들러의 결과는 버리고 503 으로 응답한다.
+*
+*   @ExceptionHandler 의 반환값은 확인하지 않는다.
+*   (예외 처리 중에는 DeadlineResolver 가 앞에서 이미 확인했고, 여기서 던지면 원래 예외가 다시 밖으로 나간다.)
+* */
+@ControllerAdvice
+public class DeadlineResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return !returnType.hasMethodAnnotation(ExceptionHandler.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Deadline.check();
+        return body;
+    }
+}
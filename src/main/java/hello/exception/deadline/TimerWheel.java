@@ -0,0 +1,108 @@
+package hello.exception.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+public class TimerWheel implements Closeable {
+
+    /*
+    *   [ Hashed Timer Wheel ]
+    *
+    *   진행 중인 요청이 수천 개여도 등록/취소가 O(1) 이다.
+    *   - 등록 : 요청 스레드는 pending 큐에 넣기만 한다. (lock 없음)
+    *   - 취소 : cancelled 표시만 한다. 버킷에서는 그 칸 차례가 왔을 때 치운다.
+    *   - 만료 : wheel 스레드가 tick 마다 버킷 하나만 훑는다. 한 바퀴보다 먼 deadline 은 rounds 로 센다.
+    *
+    *   버킷은 wheel 스레드만 만지므로 동기화가 필요 없다.
+    * */
+
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Deadline>[] buckets;
+    private final Queue<Deadline> pending = new ConcurrentLinkedQueue<>();
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int wheelSize) {
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.worker = new Thread(this::run, "deadline-timer-wheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Deadline schedule(long timeoutMillis) {
+        Deadline deadline = new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        pending.add(deadline);
+        return deadline;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long wakeAt = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = wakeAt - System.nanoTime()) > 0 && running) {
+                LockSupport.parkNanos(sleep);
+            }
+            try {
+                transferPending();
+                expire(buckets[(int) (tick & mask)]);
+            } catch (RuntimeException e) {
+                log.error("timer wheel tick failed", e);
+            }
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        Deadline deadline;
+        while ((deadline = pending.poll()) != null) {
+            if (deadline.cancelled()) {
+                continue;
+            }
+            long ticks = Math.max((deadline.deadlineNanos - startNanos) / tickNanos, tick);
+            deadline.rounds = (ticks - tick) / buckets.length;
+            buckets[(int) (ticks & mask)].add(deadline);
+        }
+    }
+
+    private void expire(ArrayDeque<Deadline> bucket) {
+        Iterator<Deadline> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Deadline deadline = iterator.next();
+            if (deadline.cancelled()) {
+                iterator.remove();
+            } else if (deadline.rounds > 0) {
+                deadline.rounds--;
+            } else {
+                deadline.expire();
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package hello.exception.exception;
+
+/*
+*   요청 deadline 이 지났을 때 Deadline.check() 가 던진다.
+*   DeadlineResolver 가 미리 만들어 둔 503 응답으로 바꾼다.
+* */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException() {
+        super("deadline exceeded", null, false, false);
+    }
+}
@@ -1,7 +1,13 @@
 package hello.exception.exhandler.advice;
 
+import hello.exception.bulkhead.ErrorBulkhead;
 import hello.exception.exception.UserException;
 import hello.exception.exhandler.ErrorResult;
+import hello.exception.metrics.ErrorCounters;
+import hello.exception.timeline.RequestTimeline;
+import hello.exception.timeline.Stage;
+import hello.exception.warmup.ErrorPathWarmup;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +15,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.servlet.http.HttpServletRequest;
+
 /*
 *   [API 예외 처리 - @ControllerAdvice]
 *
@@ -30,15 +38,18 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 *   대상 컨트롤러 지정을 생략하면 모든 컨트롤러에 적용된다.
 * */
 @Slf4j
+@RequiredArgsConstructor
 @RestControllerAdvice(basePackages = "hello.exception.api")
 public class ExControllerAdvice {
 
-
+    private final ErrorCounters errorCounters;
+    private final ErrorBulkhead errorBulkhead;
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(IllegalArgumentException.class)
-    public ErrorResult illegalExHandler(IllegalArgumentException e) {
-        log.error("[exceptionHandler] ex", e);
+    public ErrorResult illegalExHandler(IllegalArgumentException e, HttpServletRequest request) {
+        RequestTimeline.mark(Stage.ADVICE);
+        record(request, e, HttpStatus.BAD_REQUEST);
         return new ErrorResult("BAD", e.getMessage());
         /*
         *   [ @ExceptionHandler 예외 처리 방법 ]
@@ -63,12 +74,13 @@ public class ExControllerAdvice {
     }
 
     @ExceptionHandler
-    public ResponseEntity<ErrorResult> userExHandler(UserException e) {
+    public ResponseEntity<ErrorResult> userExHandler(UserException e, HttpServletRequest request) {
         /*
         *   [ 예외 생략 ]
         *   @ExceptionHandler에 예외를 생략할 수 있다. 생략하면 메서드 파라미터의 예외가 지정된다.
         * */
-        log.error("[exceptionHandler] ex", e);
+        RequestTimeline.mark(Stage.ADVICE);
+        record(request, e, HttpStatus.BAD_REQUEST);
         ErrorResult errorResult = new ErrorResult("USER-EX", e.getMessage());
         return new ResponseEntity(errorResult, HttpStatus.BAD_REQUEST);
 
@@ -84,8 +96,9 @@ public class ExControllerAdvice {
 
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ExceptionHandler
-    public ErrorResult exHandler(Exception e) {
-        log.error("[exceptionHandler] ex", e);
+    public ErrorResult exHandler(Exception e, HttpServletRequest request) {
+        RequestTimeline.mark(Stage.ADVICE);
+        record(request, e, HttpStatus.INTERNAL_SERVER_ERROR);
         return new ErrorResult("EX", "내부 오류");
 
         /*
@@ -99,6 +112,34 @@ public class ExControllerAdvice {
 
     }
 
+    /*
+    *   워밍업 요청(ErrorPathWarmup)은 오류 카운터에 세지 않고 로그도 남기지 않는다.
+    * */
+    private void record(HttpServletRequest request, Exception e, HttpStatus status) {
+        if (ErrorPathWarmup.isWarmup(request)) {
+            return;
+        }
+        logException(e);
+        errorCounters.increment(e, status.value());
+    }
+
+    /*
+    *   스택 트레이스 로그도 오류 처리 bulkhead 의 permit 을 얻었을 때만 남긴다.
+    *   permit 이 없으면(오류 폭주) 메시지 한 줄만 남긴다.
+    * */
+    private void logException(Exception e) {
+        if (!errorBulkhead.tryAcquire()) {
+            errorBulkhead.fallback();
+            log.error("[exceptionHandler] ex {}: {}", e.getClass().getName(), e.getMessage());
+            return;
+        }
+        try {
+            log.error("[exceptionHandler] ex", e);
+        } finally {
+            errorBulkhead.release();
+        }
+    }
+
     /*
      *   [API 예외 처리 - @ExceptionHandler]
      *
@@ -0,0 +1,55 @@
+package hello.exception.exhandler.error;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*
+*   [ ErrorBody ]
+*
+*   DefaultErrorAttributes 는 오류마다 LinkedHashMap 을 새로 만들고, Jackson 이 그 Map 을 범용으로 직렬화한다.
+*   ErrorBody 는 필드가 고정된(timestamp, status, error, exception, trace, message, path) 오류 응답 객체이다.
+*   스레드마다 하나를 만들어두고 재사용한다. (flyweight) -> ErrorBody.reuse()
+*
+*   null 인 필드는 응답에 쓰지 않는다. timestamp 가 0 이면 쓰지 않는다.
+*   message 만은 includeNullMessage() 를 부르면 null 이어도 "message":null 로 쓴다.
+*   한 요청 안에서 채우고 바로 ErrorBodyWriter 로 쓰기 때문에 다른 곳에 보관하면 안 된다.
+* */
+@Getter
+@Setter
+public class ErrorBody {
+
+    private static final ThreadLocal<ErrorBody> CURRENT = ThreadLocal.withInitial(ErrorBody::new);
+
+    private long timestamp;
+    private int status;
+    private String error;
+    private String exception;
+    private String trace;
+    private String message;
+    private String path;
+    private boolean nullMessageIncluded;
+
+    private ErrorBody() {
+    }
+
+    public static ErrorBody reuse() {
+        ErrorBody body = CURRENT.get();
+        body.clear();
+        return body;
+    }
+
+    public void includeNullMessage() {
+        nullMessageIncluded = true;
+    }
+
+    private void clear() {
+        timestamp = 0;
+        status = 0;
+        error = null;
+        exception = null;
+        trace = null;
+        message = null;
+        path = null;
+        nullMessageIncluded = false;
+    }
+}
@@ -0,0 +1,108 @@
+package hello.exception.exhandler.error;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/*
+*   [ ErrorBodyWriter ]
+*
+*   ErrorBody 전용 JSON 작성기이다. 필드 순서가 고정되어 있으므로 Jackson 을 거치지 않고
+*   스레드마다 재사용하는 StringBuilder 에 바로 쓴 다음 response writer 로 내보낸다.
+*
+*   timestamp 형식은 Spring Boot 기본 Jackson 설정(Date -> "2021-04-28T00:00:00.000+00:00")과 같다.
+*   문자열 escape 도 Jackson 과 같다. (b, f 같은 짧은 escape 를 쓰고, 그 외 제어문자는 16진수 대문자로 쓴다.)
+* */
+@Component
+public class ErrorBodyWriter {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSxxx")
+            .withZone(ZoneOffset.UTC);
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    public void write(ErrorBody body, HttpServletResponse response) throws IOException {
+        StringBuilder json = BUFFER.get();
+        json.setLength(0);
+        append(body, json);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().append(json);
+    }
+
+    void append(ErrorBody body, StringBuilder json) {
+        json.append('{');
+        if (body.getTimestamp() != 0) {
+            json.append("\"timestamp\":\"");
+            TIMESTAMP.formatTo(Instant.ofEpochMilli(body.getTimestamp()), json);
+            json.append("\",");
+        }
+        json.append("\"status\":").append(body.getStatus());
+        field(json, "error", body.getError());
+        field(json, "exception", body.getException());
+        field(json, "trace", body.getTrace());
+        if (body.getMessage() == null && body.isNullMessageIncluded()) {
+            json.append(",\"message\":null");
+        } else {
+            field(json, "message", body.getMessage());
+        }
+        field(json, "path", body.getPath());
+        json.append('}');
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":\"");
+        escape(json, value);
+        json.append('"');
+    }
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static void escape(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                case '\b':
+                    json.append("\\b");
+                    break;
+                case '\f':
+                    json.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00");
+                        json.append(HEX[c >> 4]);
+                        json.append(HEX[c & 0xf]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+    }
+}
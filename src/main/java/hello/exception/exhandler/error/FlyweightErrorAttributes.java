@@ -0,0 +1,105 @@
+package hello.exception.exhandler.error;
+
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.boot.web.error.ErrorAttributeOptions.Include;
+import org.springframework.boot.web.servlet.error.DefaultErrorAttributes;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BindingResult;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/*
+*   [ FlyweightErrorAttributes ]
+*
+*   DefaultErrorAttributes 를 상속해서 예외 저장(HandlerExceptionResolver 역할)과 Map 기반 getErrorAttributes() 는
+*   그대로 사용한다. (HTML 오류 화면의 model 로 쓰인다.)
+*
+*   API(JSON) 오류 응답은 fill() 로 ErrorBody 를 채운다. 채우는 규칙은 DefaultErrorAttributes 와 같다.
+*   -> exception, trace, message 는 포함 옵션이 있을 때만 채운다. (없으면 응답에 키가 없다.)
+* */
+@Component
+public class FlyweightErrorAttributes extends DefaultErrorAttributes {
+
+    // DefaultErrorAttributes 가 resolveException() 에서 예외를 저장하는 속성 이름
+    private static final String ERROR_INTERNAL_ATTRIBUTE = DefaultErrorAttributes.class.getName() + ".ERROR";
+
+    private static final String NO_MESSAGE = "No message available";
+
+    public ErrorBody fill(HttpServletRequest request, ErrorAttributeOptions options) {
+        ErrorBody body = ErrorBody.reuse();
+        body.setTimestamp(System.currentTimeMillis());
+
+        Integer status = (Integer) request.getAttribute(RequestDispatcher.ERROR_STATUS_CODE);
+        if (status == null) {
+            body.setStatus(999);
+            body.setError("None");
+        } else {
+            body.setStatus(status);
+            body.setError(reasonPhrase(status));
+        }
+
+        Throwable error = findError(request);
+        if (error != null) {
+            if (options.isIncluded(Include.EXCEPTION)) {
+                body.setException(error.getClass().getName());
+            }
+            if (options.isIncluded(Include.STACK_TRACE)) {
+                StringWriter stackTrace = new StringWriter();
+                error.printStackTrace(new PrintWriter(stackTrace));
+                body.setTrace(stackTrace.toString());
+            }
+        }
+
+        if (options.isIncluded(Include.MESSAGE)) {
+            body.setMessage(message(request, error));
+        }
+        body.setPath((String) request.getAttribute(RequestDispatcher.ERROR_REQUEST_URI));
+        return body;
+    }
+
+    /*
+    *   BindingResult 오류는 errors 목록이 붙어서 고정된 모양으로 쓸 수 없다.
+    *   이 경우에는 기존처럼 Map(getErrorAttributes) 으로 응답한다.
+    * */
+    public boolean hasBindingErrors(HttpServletRequest request) {
+        Throwable error = findError(request);
+        return error instanceof BindingResult && ((BindingResult) error).hasErrors();
+    }
+
+    private Throwable findError(HttpServletRequest request) {
+        Object error = request.getAttribute(ERROR_INTERNAL_ATTRIBUTE);
+        if (error == null) {
+            error = request.getAttribute(RequestDispatcher.ERROR_EXCEPTION);
+        }
+        if (!(error instanceof Throwable)) {
+            return null;
+        }
+        Throwable throwable = (Throwable) error;
+        while (throwable instanceof ServletException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private String message(HttpServletRequest request, Throwable error) {
+        Object message = request.getAttribute(RequestDispatcher.ERROR_MESSAGE);
+        if (message != null && StringUtils.hasLength(message.toString())) {
+            return message.toString();
+        }
+        if (error != null && StringUtils.hasLength(error.getMessage())) {
+            return error.getMessage();
+        }
+        return NO_MESSAGE;
+    }
+
+    private static String reasonPhrase(int status) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        return httpStatus != null ? httpStatus.getReasonPhrase() : "Http Status " + status;
+    }
+}
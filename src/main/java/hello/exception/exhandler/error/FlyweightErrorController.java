@@ -0,0 +1,133 @@
+package hello.exception.exhandler.error;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.exception.timeline.RequestTimeline;
+import hello.exception.timeline.Stage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ErrorProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.servlet.error.AbstractErrorController;
+import org.springframework.boot.autoconfigure.web.servlet.error.ErrorViewResolver;
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.boot.web.error.ErrorAttributeOptions.Include;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+*   [ FlyweightErrorController ]
+*
+*   BasicErrorController 대신 /error 를 처리한다. (ErrorController 빈이 있으면 BasicErrorController 는 등록되지 않는다.)
+*
+*   errorHtml() : Accept 가 text/html 이면 BasicErrorController 와 똑같이 오류 화면(view)을 찾아서 보여준다.
+*   error()     : 그 외에는 Map 을 만들지 않고 ErrorBody 를 채워서 ErrorBodyWriter 로 바로 쓴다.
+*
+*   server.error.include-exception, include-message, include-stacktrace, include-binding-errors 설정을 그대로 따른다.
+* */
+@Controller
+@RequestMapping("${server.error.path:${error.path:/error}}")
+public class FlyweightErrorController extends AbstractErrorController {
+
+    private final FlyweightErrorAttributes errorAttributes;
+    private final ErrorBodyWriter errorBodyWriter;
+    private final ErrorProperties errorProperties;
+    private final ObjectMapper objectMapper;
+
+    public FlyweightErrorController(FlyweightErrorAttributes errorAttributes,
+                                    ErrorBodyWriter errorBodyWriter,
+                                    ServerProperties serverProperties,
+                                    ObjectMapper objectMapper,
+                                    ObjectProvider<ErrorViewResolver> errorViewResolvers) {
+        super(errorAttributes, errorViewResolvers.orderedStream().collect(Collectors.toList()));
+        this.errorAttributes = errorAttributes;
+        this.errorBodyWriter = errorBodyWriter;
+        this.errorProperties = serverProperties.getError();
+        this.objectMapper = objectMapper;
+    }
+
+    @RequestMapping(produces = MediaType.TEXT_HTML_VALUE)
+    public ModelAndView errorHtml(HttpServletRequest request, HttpServletResponse response) {
+        RequestTimeline.mark(Stage.ERROR_HANDLER);
+        HttpStatus status = getStatus(request);
+        Map<String, Object> model = Collections.unmodifiableMap(getErrorAttributes(request, getErrorAttributeOptions(request)));
+        response.setStatus(status.value());
+        ModelAndView modelAndView = resolveErrorView(request, response, status, model);
+        return (modelAndView != null) ? modelAndView : new ModelAndView("error", model);
+    }
+
+    @RequestMapping
+    public void error(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        RequestTimeline.mark(Stage.ERROR_HANDLER);
+        HttpStatus status = getStatus(request);
+        response.setStatus(status.value());
+        if (status == HttpStatus.NO_CONTENT) {
+            return;
+        }
+
+        ErrorAttributeOptions options = getErrorAttributeOptions(request);
+        if (options.isIncluded(Include.BINDING_ERRORS) && errorAttributes.hasBindingErrors(request)) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), getErrorAttributes(request, options));
+            return;
+        }
+
+        errorBodyWriter.write(errorAttributes.fill(request, options), response);
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<String> mediaTypeNotAcceptable(HttpServletRequest request) {
+        HttpStatus status = getStatus(request);
+        return ResponseEntity.status(status).build();
+    }
+
+    private ErrorAttributeOptions getErrorAttributeOptions(HttpServletRequest request) {
+        ErrorAttributeOptions options = ErrorAttributeOptions.defaults();
+        if (errorProperties.isIncludeException()) {
+            options = options.including(Include.EXCEPTION);
+        }
+        if (isIncludeStackTrace(request)) {
+            options = options.including(Include.STACK_TRACE);
+        }
+        if (isIncluded(errorProperties.getIncludeMessage(), getMessageParameter(request))) {
+            options = options.including(Include.MESSAGE);
+        }
+        if (isIncluded(errorProperties.getIncludeBindingErrors(), getErrorsParameter(request))) {
+            options = options.including(Include.BINDING_ERRORS);
+        }
+        return options;
+    }
+
+    private boolean isIncludeStackTrace(HttpServletRequest request) {
+        switch (errorProperties.getIncludeStacktrace()) {
+            case ALWAYS:
+                return true;
+            case ON_PARAM:
+                return getTraceParameter(request);
+            default:
+                return false;
+        }
+    }
+
+    private boolean isIncluded(ErrorProperties.IncludeAttribute include, boolean parameter) {
+        switch (include) {
+            case ALWAYS:
+                return true;
+            case ON_PARAM:
+                return parameter;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package hello.exception.filter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+*   [ Count-Min Sketch ]
+*
+*   depth 개의 행, width 개의 칸으로 된 고정 크기 카운터 표이다.
+*   key 마다 행별로 다른 해시로 칸을 하나씩 골라 증가시키고, 추정치는 그 칸들의 최솟값이다.
+*   (실제 값보다 작게 추정하는 일은 없고, 해시 충돌만큼 크게 추정할 수 있다.)
+*
+*   클라이언트가 아무리 많아도 메모리는 depth * width 개의 long 으로 고정된다.
+*   halve() 로 모든 칸을 절반으로 줄여서 오래된 오류의 영향을 점점 없앤다. (time decay)
+* */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x85EBCA77C2B2AE63L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length + ": " + depth);
+        }
+        if (width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two: " + width);
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    public long add(String key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.incrementAndGet(index(row, hash)));
+        }
+        return min;
+    }
+
+    public long estimate(String key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(row, hash)));
+        }
+        return min;
+    }
+
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            long value = counters.get(i);
+            while (value != 0 && !counters.compareAndSet(i, value, value >> 1)) {
+                value = counters.get(i);
+            }
+        }
+    }
+
+    private int index(int row, int hash) {
+        long h = (hash ^ SEEDS[row]) * 0x9E3779B97F4A7C15L;
+        return row * (mask + 1) + ((int) (h >>> 32) & mask);
+    }
+}
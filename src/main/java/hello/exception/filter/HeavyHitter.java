@@ -0,0 +1,12 @@
+package hello.exception.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class HeavyHitter {
+    private String client;
+    private long errors;
+}
+// 오류를 가장 많이 일으킨 클라이언트 목록(/internal/heavy-hitters)의 항목이다.
@@ -0,0 +1,144 @@
+package hello.exception.filter;
+
+import hello.exception.warmup.ErrorPathWarmup;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class HeavyHitterFilter implements Filter {
+
+    /*
+    *   [ 악성 클라이언트 빠른 거절 ]
+    *
+    *   몇몇 클라이언트가 /api/members/bad, /api/default-handler-ex 처럼 잘못된 요청을 계속 보내면
+    *   요청마다 필터, 인터셉터, ExceptionResolver 비용을 모두 치른다.
+    *
+    *   LogFilter 보다 앞에서 클라이언트별 오류 수를 Count-Min Sketch 로 센다.
+    *   오류 수(추정치)가 error-budget 을 넘은 클라이언트는 Spring MVC 까지 가지 않고 미리 만들어 둔 429 응답을 바로 받는다.
+    *   decay-interval 마다 모든 카운터를 절반으로 줄이므로, 오류를 멈춘 클라이언트는 곧 다시 허용된다.
+    *
+    *   DispatcherType.REQUEST 에만 등록한다. (ERROR 재요청까지 세면 오류 한 건이 두 번 세어진다.)
+    *
+    *   클라이언트 구분 : X-Forwarded-For 는 누구나 보낼 수 있으므로 trusted-proxies 에서 온 요청일 때만 읽는다.
+    *   밸런서는 받은 주소를 오른쪽에 덧붙이므로, 오른쪽부터 보면서 trusted-proxies 가 아닌 첫 주소를 클라이언트로 본다.
+    *   (왼쪽 주소는 클라이언트가 마음대로 써 넣을 수 있다. 값을 바꿔가며 예산을 피하거나 남의 IP 를 429 로 막을 수 있다.)
+    * */
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"code\":\"TOO-MANY\",\"message\":\"오류 요청이 너무 많습니다\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final CountMinSketch sketch;
+    private final HeavyHitters heavyHitters;
+    private final long errorBudget;
+    private final long decayIntervalNanos;
+    private final String retryAfter;
+    private final Set<String> trustedProxies;
+    private final AtomicLong lastDecay = new AtomicLong(System.nanoTime());
+
+    public HeavyHitterFilter(int depth, int width, int topK, long errorBudget, long decayIntervalMillis,
+                             Set<String> trustedProxies) {
+        this.sketch = new CountMinSketch(depth, width);
+        this.heavyHitters = new HeavyHitters(topK);
+        this.errorBudget = errorBudget;
+        this.decayIntervalNanos = TimeUnit.MILLISECONDS.toNanos(decayIntervalMillis);
+        this.retryAfter = String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(decayIntervalMillis)));
+        this.trustedProxies = Set.copyOf(trustedProxies);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        if (ErrorPathWarmup.isWarmup(httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        maybeDecay();
+
+        String client = clientOf(httpRequest);
+        if (sketch.estimate(client) > errorBudget) {
+            reject(httpResponse);
+            return;
+        }
+
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = httpResponse.getStatus() >= 400;
+        } finally {
+            if (failed) {
+                heavyHitters.offer(client, sketch.add(client));
+            }
+        }
+    }
+
+    public List<HeavyHitter> topOffenders() {
+        return heavyHitters.snapshot();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(429);
+        response.setHeader("Retry-After", retryAfter);
+        response.setContentType("application/json;charset=UTF-8");
+        response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+    }
+
+    private void maybeDecay() {
+        long last = lastDecay.get();
+        long now = System.nanoTime();
+        if (now - last >= decayIntervalNanos && lastDecay.compareAndSet(last, now)) {
+            sketch.halve();
+            heavyHitters.halve();
+        }
+    }
+
+    String clientOf(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        if (!trustedProxies.contains(client)) {
+            return client;
+        }
+
+        // X-Forwarded-For 헤더가 여러 줄이면 뒤에 온 줄이 뒤에 덧붙은 주소이다.
+        String forwardedFor = null;
+        Enumeration<String> headers = request.getHeaders(FORWARDED_FOR);
+        while (headers.hasMoreElements()) {
+            String header = headers.nextElement();
+            forwardedFor = forwardedFor == null ? header : forwardedFor + "," + header;
+        }
+        if (!StringUtils.hasText(forwardedFor)) {
+            return client;
+        }
+
+        int end = forwardedFor.length();
+        while (end > 0) {
+            int comma = forwardedFor.lastIndexOf(',', end - 1);
+            String hop = forwardedFor.substring(comma + 1, end).trim();
+            end = comma < 0 ? 0 : comma;
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        // 모두 trusted-proxies 이면 가장 왼쪽 주소를 쓴다.
+        return client;
+    }
+}
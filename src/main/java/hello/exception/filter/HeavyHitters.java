@@ -0,0 +1,71 @@
+package hello.exception.filter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+*   [ top-K 표 ]
+*
+*   Count-Min Sketch 는 key 를 저장하지 않으므로 "누가" 많이 실패했는지는 알 수 없다.
+*   추정치가 큰 클라이언트 k 개만 작은 배열에 따로 들고 있는다.
+*   표가 가득 차면 가장 작은 항목보다 추정치가 클 때만 그 자리를 차지한다.
+* */
+public class HeavyHitters {
+
+    private final String[] clients;
+    private final long[] errors;
+
+    public HeavyHitters(int capacity) {
+        this.clients = new String[capacity];
+        this.errors = new long[capacity];
+    }
+
+    public synchronized void offer(String client, long estimate) {
+        int empty = -1;
+        int min = -1;
+        for (int i = 0; i < clients.length; i++) {
+            if (clients[i] == null) {
+                if (empty < 0) {
+                    empty = i;
+                }
+                continue;
+            }
+            if (client.equals(clients[i])) {
+                errors[i] = estimate;
+                return;
+            }
+            if (min < 0 || errors[i] < errors[min]) {
+                min = i;
+            }
+        }
+
+        if (empty >= 0) {
+            clients[empty] = client;
+            errors[empty] = estimate;
+        } else if (estimate > errors[min]) {
+            clients[min] = client;
+            errors[min] = estimate;
+        }
+    }
+
+    public synchronized void halve() {
+        for (int i = 0; i < clients.length; i++) {
+            errors[i] >>= 1;
+            if (errors[i] == 0) {
+                clients[i] = null;
+            }
+        }
+    }
+
+    public synchronized List<HeavyHitter> snapshot() {
+        List<HeavyHitter> result = new ArrayList<>();
+        for (int i = 0; i < clients.length; i++) {
+            if (clients[i] != null) {
+                result.add(new HeavyHitter(clients[i], errors[i]));
+            }
+        }
+        result.sort(Comparator.comparingLong(HeavyHitter::getErrors).reversed());
+        return result;
+    }
+}
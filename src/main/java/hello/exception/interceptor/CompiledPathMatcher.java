@@ -0,0 +1,239 @@
+package hello.exception.interceptor;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+*   [ CompiledPathMatcher ]
+*
+*   인터셉터를 addPathPatterns / excludePathPatterns 로 등록하면 요청마다(REQUEST, ERROR 모두)
+*   패턴 하나하나를 요청 URI 와 비교한다.
+*
+*   시작할 때 include / exclude 패턴을 모두 PathPatternParser 로 검증한 다음,
+*   경로 세그먼트 단위의 트리(trie) 하나로 합쳐둔다. 요청 URI 를 한 번 훑으면 include / exclude 여부가 같이 나온다.
+*   문자열을 자르지 않고 원래 URI 위에서 비교하므로 요청마다 객체를 만들지 않는다.
+*
+*   트리로 표현하는 패턴
+*   - 리터럴 세그먼트        : /error
+*   - 한 세그먼트 와일드카드 : /api/*, /*.ico
+*   - 마지막 ** (하위 전체)  : /css/**, /**
+*
+*   그 외({id} 캡처, 정규식, 중간의 ** 등)는 PathPattern 그대로 따로 비교한다. (fallback)
+*   "*.ico" 처럼 / 로 시작하지 않는 패턴은 앞에 / 를 붙인다.
+* */
+public class CompiledPathMatcher {
+
+    private static final int INCLUDE = 1;
+    private static final int EXCLUDE = 2;
+
+    private final Node root = new Node();
+    private final List<PathPattern> fallbackIncludes = new ArrayList<>();
+    private final List<PathPattern> fallbackExcludes = new ArrayList<>();
+    private final boolean includeAll;
+
+    private CompiledPathMatcher(List<String> includes, List<String> excludes) {
+        PathPatternParser parser = new PathPatternParser();
+        for (String include : includes) {
+            add(parser, include, INCLUDE, fallbackIncludes);
+        }
+        for (String exclude : excludes) {
+            add(parser, exclude, EXCLUDE, fallbackExcludes);
+        }
+        this.includeAll = includes.isEmpty();
+    }
+
+    public static CompiledPathMatcher compile(List<String> includes, List<String> excludes) {
+        return new CompiledPathMatcher(includes, excludes);
+    }
+
+    public boolean matches(String path) {
+        return matches(path, 0);
+    }
+
+    /*
+    *   path 의 from 위치부터를 경로로 본다. (context path 를 잘라내지 않고 건너뛰기 위해)
+    * */
+    public boolean matches(String path, int from) {
+        int end = path.length();
+        boolean trailingSlash = end > from && path.charAt(end - 1) == '/';
+        if (end - from > 1 && trailingSlash) {
+            end--; // 트리에서는 PathPattern 처럼 끝의 / 를 무시한다. (fallback 은 PathPattern 이 직접 판단한다.)
+        }
+
+        int decision = root.match(path, from, end, trailingSlash);
+        if ((decision & EXCLUDE) == 0 && !fallbackExcludes.isEmpty()
+                && anyMatch(fallbackExcludes, path.substring(from))) {
+            decision |= EXCLUDE;
+        }
+        if ((decision & EXCLUDE) != 0) {
+            return false;
+        }
+        if (includeAll || (decision & INCLUDE) != 0) {
+            return true;
+        }
+        return !fallbackIncludes.isEmpty() && anyMatch(fallbackIncludes, path.substring(from));
+    }
+
+    private void add(PathPatternParser parser, String pattern, int flag, List<PathPattern> fallback) {
+        String normalized = pattern.startsWith("/") ? pattern : "/" + pattern;
+        PathPattern parsed = parser.parse(normalized); // 잘못된 패턴은 시작할 때 실패한다.
+
+        String[] segments = normalized.substring(1).split("/", -1);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean last = i == segments.length - 1;
+
+            if (segment.equals("**")) {
+                if (!last) {
+                    fallback.add(parsed);
+                    return;
+                }
+                node.subtree |= flag;
+                return;
+            }
+            if (!isSimple(segment)) {
+                fallback.add(parsed);
+                return;
+            }
+            if (segment.isEmpty() && last) {
+                if (i > 0) {
+                    // "/error/" 는 "/error" 와 맞지 않는다. (PathPattern 과 같게 fallback 으로 비교한다.)
+                    fallback.add(parsed);
+                    return;
+                }
+                break; // "/"
+            }
+            node = node.child(segment);
+        }
+        node.exact |= flag;
+    }
+
+    private static boolean isSimple(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '?' || c == '{' || c == '}') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean anyMatch(List<PathPattern> patterns, String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(container)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private String[] literals = new String[0];
+        private Node[] literalChildren = new Node[0];
+        private String[] globs = new String[0];
+        private Node[] globChildren = new Node[0];
+        private int exact;
+        private int subtree;
+
+        Node child(String segment) {
+            boolean glob = segment.indexOf('*') >= 0;
+            String[] keys = glob ? globs : literals;
+            Node[] children = glob ? globChildren : literalChildren;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(segment)) {
+                    return children[i];
+                }
+            }
+
+            Node child = new Node();
+            String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+            Node[] newChildren = Arrays.copyOf(children, children.length + 1);
+            newKeys[keys.length] = segment;
+            newChildren[children.length] = child;
+            if (glob) {
+                globs = newKeys;
+                globChildren = newChildren;
+            } else {
+                literals = newKeys;
+                literalChildren = newChildren;
+            }
+            return child;
+        }
+
+        /*
+        *   path[start, end) 에서 이 노드 아래로 맞는 패턴들의 INCLUDE / EXCLUDE 비트를 모은다.
+        *   start 는 '/' 위치이다.
+        *   경로가 / 로 끝나면 마지막의 빈 세그먼트도 "*" 와 맞는다. ("/api/*" 는 "/api/" 와 맞는다.)
+        * */
+        int match(String path, int start, int end, boolean trailingSlash) {
+            int decision = subtree;
+            if (start >= end || (start == end - 1 && path.charAt(start) == '/')) {
+                decision |= exact;
+                if (trailingSlash) {
+                    for (int i = 0; i < globs.length; i++) {
+                        if (globs[i].equals("*")) {
+                            decision |= globChildren[i].exact;
+                        }
+                    }
+                }
+                return decision;
+            }
+
+            int segmentStart = start + 1;
+            int segmentEnd = path.indexOf('/', segmentStart);
+            if (segmentEnd < 0 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            int length = segmentEnd - segmentStart;
+
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (literal.length() == length && path.regionMatches(segmentStart, literal, 0, length)) {
+                    decision |= literalChildren[i].match(path, segmentEnd, end, trailingSlash);
+                }
+            }
+            for (int i = 0; i < globs.length; i++) {
+                if (length > 0 && globMatches(globs[i], path, segmentStart, segmentEnd)) {
+                    decision |= globChildren[i].match(path, segmentEnd, end, trailingSlash);
+                }
+            }
+            return decision;
+        }
+
+        /*
+        *   '*' 만 있는 세그먼트 패턴 비교. ("*", "*.ico", "img-*.png")
+        * */
+        private static boolean globMatches(String glob, String path, int from, int to) {
+            int g = 0;
+            int p = from;
+            int starG = -1;
+            int starP = -1;
+            while (p < to) {
+                if (g < glob.length() && glob.charAt(g) == '*') {
+                    starG = g++;
+                    starP = p;
+                } else if (g < glob.length() && glob.charAt(g) == path.charAt(p)) {
+                    g++;
+                    p++;
+                } else if (starG >= 0) {
+                    g = starG + 1;
+                    p = ++starP;
+                } else {
+                    return false;
+                }
+            }
+            while (g < glob.length() && glob.charAt(g) == '*') {
+                g++;
+            }
+            return g == glob.length();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package hello.exception.interceptor;
 
+import hello.exception.timeline.RequestTimeline;
+import hello.exception.timeline.Stage;
+import hello.exception.warmup.ErrorPathWarmup;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
@@ -15,23 +18,34 @@ public class LogInterceptor implements HandlerInterceptor {
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        RequestTimeline.mark(Stage.PRE_HANDLE);
+        RequestTimeline.endpoint(request);
 
         String requestURI = request.getRequestURI();
 
         String uuid = UUID.randomUUID().toString();
         request.setAttribute(LOG_ID, uuid);
 
-        log.info("REQUEST  [{}][{}][{}][{}]", uuid, request.getDispatcherType(), requestURI, handler);
+        if (!ErrorPathWarmup.isWarmup(request)) {
+            log.info("REQUEST  [{}][{}][{}][{}]", uuid, request.getDispatcherType(), requestURI, handler);
+        }
+        RequestTimeline.mark(Stage.HANDLER);
         return true;
     }
 
     @Override
     public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) throws Exception {
-        log.info("postHandle [{}]", modelAndView);
+        if (!ErrorPathWarmup.isWarmup(request)) {
+            log.info("postHandle [{}]", modelAndView);
+        }
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        if (ErrorPathWarmup.isWarmup(request)) {
+            // 워밍업 요청(ErrorPathWarmup)은 로그를 남기지 않는다.
+            return;
+        }
         String requestURI = request.getRequestURI();
         String logId = (String)request.getAttribute(LOG_ID);
         log.info("RESPONSE [{}][{}][{}]", logId, request.getDispatcherType(), requestURI);
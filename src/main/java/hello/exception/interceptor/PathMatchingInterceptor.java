@@ -0,0 +1,63 @@
+package hello.exception.interceptor;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/*
+*   [ PathMatchingInterceptor ]
+*
+*   CompiledPathMatcher 로 대상 경로인지 판단하고, 대상일 때만 delegate 인터셉터를 호출한다.
+*   (스프링의 MappedInterceptor 가 하던 일을 대신한다. 그래서 addPathPatterns 없이 등록한다.)
+*
+*   preHandle 에서 판단한 결과를 요청 속성에 남겨두고 postHandle, afterCompletion 에서는 다시 비교하지 않는다.
+*
+*   MappedInterceptor 처럼 요청 URI 가 아니라 lookup path(디코딩하고 ;jsessionid 같은 ; 파라미터를 뺀 경로)로 비교한다.
+*   핸들러 매핑이 이미 계산해서 요청 속성에 남겨둔 값이 있으면 그 값을 쓴다.
+* */
+public class PathMatchingInterceptor implements HandlerInterceptor {
+
+    private final HandlerInterceptor delegate;
+    private final CompiledPathMatcher matcher;
+    private final String matchedAttribute;
+
+    public PathMatchingInterceptor(HandlerInterceptor delegate, CompiledPathMatcher matcher) {
+        this.delegate = delegate;
+        this.matcher = matcher;
+        this.matchedAttribute = PathMatchingInterceptor.class.getName() + "." + delegate.getClass().getSimpleName();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!matcher.matches(lookupPath(request))) {
+            return true;
+        }
+        request.setAttribute(matchedAttribute, Boolean.TRUE);
+        return delegate.preHandle(request, response, handler);
+    }
+
+    private static String lookupPath(HttpServletRequest request) {
+        Object resolved = request.getAttribute(UrlPathHelper.PATH_ATTRIBUTE);
+        if (resolved instanceof String) {
+            return (String) resolved;
+        }
+        return UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) throws Exception {
+        if (request.getAttribute(matchedAttribute) != null) {
+            delegate.postHandle(request, response, handler, modelAndView);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        if (request.getAttribute(matchedAttribute) != null) {
+            delegate.afterCompletion(request, response, handler, ex);
+        }
+    }
+}
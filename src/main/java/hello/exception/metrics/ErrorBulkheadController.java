@@ -0,0 +1,19 @@
+package hello.exception.metrics;
+
+import hello.exception.bulkhead.ErrorBulkhead;
+import hello.exception.bulkhead.ErrorBulkheadStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class ErrorBulkheadController {
+
+    private final ErrorBulkhead errorBulkhead;
+
+    @GetMapping("/internal/error-bulkhead")
+    public ErrorBulkheadStatus errorBulkhead() {
+        return errorBulkhead.status();
+    }
+}
@@ -0,0 +1,33 @@
+package hello.exception.metrics;
+
+import java.util.Collections;
+
+/*
+*   [ ErrorCounters ]
+*
+*   ExControllerAdvice, ExceptionResolver 에서 처리한 오류를 예외 타입별, HTTP 상태 코드별로 센다.
+*   shared-counters 기능이 꺼져 있으면 NOOP 을 사용한다.
+* */
+public interface ErrorCounters {
+
+    void increment(Throwable ex, int status);
+
+    ErrorCountersSnapshot snapshot();
+
+    void reset();
+
+    ErrorCounters NOOP = new ErrorCounters() {
+        @Override
+        public void increment(Throwable ex, int status) {
+        }
+
+        @Override
+        public ErrorCountersSnapshot snapshot() {
+            return new ErrorCountersSnapshot(0, 0, 0, Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        @Override
+        public void reset() {
+        }
+    };
+}
@@ -0,0 +1,27 @@
+package hello.exception.metrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class ErrorCountersController {
+
+    private final ErrorCounters errorCounters;
+
+    @GetMapping("/internal/error-counters")
+    public ErrorCountersSnapshot errorCounters() {
+        return errorCounters.snapshot();
+    }
+
+    @PostMapping("/internal/error-counters/reset")
+    public ErrorCountersSnapshot reset() {
+        log.info("reset error counters");
+        errorCounters.reset();
+        return errorCounters.snapshot();
+    }
+}
@@ -0,0 +1,17 @@
+package hello.exception.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ErrorCountersSnapshot {
+    private long epoch;
+    private long epochStartedAt;
+    private int liveInstances;
+    private Map<String, Long> exceptions;
+    private Map<String, Long> statuses;
+}
+// 호스트 전체(같은 카운터 파일을 공유하는 모든 인스턴스) 오류 카운트를 API 응답으로 사용하는 객체이다.
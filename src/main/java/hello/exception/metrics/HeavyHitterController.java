@@ -0,0 +1,21 @@
+package hello.exception.metrics;
+
+import hello.exception.filter.HeavyHitter;
+import hello.exception.filter.HeavyHitterFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class HeavyHitterController {
+
+    private final HeavyHitterFilter heavyHitterFilter;
+
+    @GetMapping("/internal/heavy-hitters")
+    public List<HeavyHitter> heavyHitters() {
+        return heavyHitterFilter.topOffenders();
+    }
+}
@@ -0,0 +1,382 @@
+package hello.exception.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class SharedErrorCounters implements ErrorCounters, Closeable {
+
+    /*
+    *   [ 호스트 공유 오류 카운터 ]
+    *
+    *   한 호스트에 여러 인스턴스(JVM)가 떠 있으면 각 인스턴스는 자기 오류 카운트만 알고 있다.
+    *   같은 디렉토리의 카운터 파일을 memory-mapped file 로 열어서 모든 인스턴스가 같은 메모리를 보도록 하고,
+    *   VarHandle 의 CAS / getAndAdd 로 카운트를 원자적으로 증가시킨다.
+    *   네트워크나 외부 저장소 없이 어떤 인스턴스에서든 호스트 전체 오류 수를 조회할 수 있다.
+    *
+    *   [ 파일 구조 ] (모든 값은 8바이트 정렬된 long, native byte order)
+    *
+    *   header   : MAGIC, LAYOUT, EPOCH, EPOCH_STARTED_AT, INIT_STATE
+    *   instance : [pid][heartbeat] x INSTANCE_SLOTS -> 인스턴스 생존 여부
+    *   counter  : [key hash][epoch | count][name length][name bytes] x COUNTER_SLOTS
+    *
+    *   - 슬롯 할당 : key(예: "ex:java.lang.RuntimeException", "status:500")의 64bit 해시로 위치를 정하고
+    *                 빈 슬롯(hash == 0)을 CAS 로 차지한다. (open addressing, linear probing)
+    *   - 생존 확인 : 각 인스턴스는 instance 슬롯을 하나 차지하고 주기적으로 heartbeat 를 기록한다.
+    *                 heartbeat 가 오래된 슬롯은 죽은 인스턴스로 보고 새 인스턴스가 다시 차지할 수 있다.
+    *   - 초기화    : count 자리의 long 은 상위 16bit 에 epoch, 하위 48bit 에 count 를 담는다.
+    *                 reset() 은 EPOCH 만 하나 올린다. 슬롯(key)은 그대로 남고, 슬롯의 epoch 가 현재 EPOCH 와 다르면
+    *                 count 는 0 으로 본다. 증가는 epoch 와 count 를 한 번의 CAS 로 바꾸므로
+    *                 한 슬롯의 count 에 두 epoch 의 증가분이 섞이지 않는다.
+    *                 reset() 과 경쟁한 증가분은 이전 epoch 쪽으로 들어가서 보이지 않는다.
+    *   - 헤더 준비 : 처음 연 인스턴스가 INIT_STATE 를 CAS 로 차지하고(pid 를 담은 claim) 헤더를 쓴 다음 READY 로 바꾼다.
+    *                 claim 한 인스턴스가 READY 를 쓰기 전에 죽으면, 같은 claim 이 staleAfterMillis 동안 그대로인 것을 본
+    *                 다음 인스턴스가 claim 을 CAS 로 빼앗아 헤더를 다시 쓴다. 헤더 값은 항상 같으므로 두 번 써도 된다.
+    * */
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final long MAGIC = 0x4845_5252_434E_5432L; // "HERRCNT2"
+
+    static final int INSTANCE_SLOTS = 64;
+    static final int COUNTER_SLOTS = 1024;
+    static final int NAME_CAPACITY = 104;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int INSTANCE_SLOT_SIZE = 16;
+    private static final int COUNTER_SLOT_SIZE = 24 + NAME_CAPACITY;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int LAYOUT_OFFSET = 8;
+    private static final int EPOCH_OFFSET = 16;
+    private static final int EPOCH_STARTED_AT_OFFSET = 24;
+    static final int INIT_STATE_OFFSET = 32;
+
+    private static final int INSTANCE_TABLE_OFFSET = HEADER_SIZE;
+    private static final int COUNTER_TABLE_OFFSET = INSTANCE_TABLE_OFFSET + INSTANCE_SLOTS * INSTANCE_SLOT_SIZE;
+    private static final int FILE_SIZE = COUNTER_TABLE_OFFSET + COUNTER_SLOTS * COUNTER_SLOT_SIZE;
+
+    private static final long LAYOUT = ((long) COUNTER_SLOTS << 32) | ((long) COUNTER_SLOT_SIZE << 16) | INSTANCE_SLOTS;
+
+    private static final long UNINITIALIZED = 0;
+    private static final long INITIALIZING = 1; // | pid << 8
+    private static final long READY = 2;
+
+    private static final int EPOCH_SHIFT = 48;
+    private static final long EPOCH_MASK = 0xFFFF;
+    private static final long COUNT_MASK = (1L << EPOCH_SHIFT) - 1;
+
+    private static final String EXCEPTION_PREFIX = "ex:";
+    private static final String STATUS_PREFIX = "status:";
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long pid = ProcessHandle.current().pid();
+    private final long staleAfterMillis;
+    private final ScheduledExecutorService heartbeat;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile int instanceSlot = -1;
+
+    public SharedErrorCounters(Path directory, long heartbeatMillis, long staleAfterMillis) throws IOException {
+        this.staleAfterMillis = staleAfterMillis;
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve("error-counters.dat");
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+        this.buffer.order(ByteOrder.nativeOrder());
+
+        initialize(file);
+        registerInstance();
+
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shared-error-counters-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat.scheduleAtFixedRate(this::beat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        log.info("shared error counters file={} pid={} slot={}", file, pid, instanceSlot);
+    }
+
+    @Override
+    public void increment(Throwable ex, int status) {
+        add(EXCEPTION_PREFIX, ex.getClass().getName());
+        add(STATUS_PREFIX, String.valueOf(status));
+    }
+
+    @Override
+    public ErrorCountersSnapshot snapshot() {
+        Map<String, Long> exceptions = new LinkedHashMap<>();
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        long epoch = currentEpoch();
+
+        for (int i = 0; i < COUNTER_SLOTS; i++) {
+            int offset = counterOffset(i);
+            if ((long) LONG.getVolatile(buffer, offset) == 0) {
+                continue;
+            }
+            long value = (long) LONG.getVolatile(buffer, offset + 8);
+            long count = (value >>> EPOCH_SHIFT) == epoch ? value & COUNT_MASK : 0;
+            String name = readName(offset);
+            if (count == 0 || name == null) {
+                continue;
+            }
+            if (name.startsWith(EXCEPTION_PREFIX)) {
+                exceptions.put(name.substring(EXCEPTION_PREFIX.length()), count);
+            } else if (name.startsWith(STATUS_PREFIX)) {
+                statuses.put(name.substring(STATUS_PREFIX.length()), count);
+            }
+        }
+
+        return new ErrorCountersSnapshot(
+                (long) LONG.getVolatile(buffer, EPOCH_OFFSET),
+                (long) LONG.getVolatile(buffer, EPOCH_STARTED_AT_OFFSET),
+                liveInstances(),
+                exceptions,
+                statuses);
+    }
+
+    @Override
+    public void reset() {
+        long epoch = (long) LONG.getVolatile(buffer, EPOCH_OFFSET);
+        if (!LONG.compareAndSet(buffer, EPOCH_OFFSET, epoch, epoch + 1)) {
+            // 다른 인스턴스가 먼저 초기화했다.
+            return;
+        }
+        LONG.setVolatile(buffer, EPOCH_STARTED_AT_OFFSET, System.currentTimeMillis());
+        log.info("shared error counters reset epoch={}", epoch + 1);
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        heartbeat.shutdownNow();
+        int slot = instanceSlot;
+        if (slot >= 0) {
+            LONG.compareAndSet(buffer, instanceOffset(slot), pid, 0L);
+        }
+        buffer.force();
+        channel.close();
+    }
+
+    private void initialize(Path file) {
+        long claim = initializingClaim(pid);
+        long observed = UNINITIALIZED;
+        long observedSince = System.currentTimeMillis();
+
+        while (true) {
+            long state = (long) LONG.getVolatile(buffer, INIT_STATE_OFFSET);
+            if (state == READY) {
+                break;
+            }
+            long now = System.currentTimeMillis();
+            if (state != UNINITIALIZED && state != observed) {
+                // 다른 인스턴스가 초기화 중이다. 이 claim 을 처음 본 시각부터 기다린다.
+                observed = state;
+                observedSince = now;
+            }
+            boolean stale = state != UNINITIALIZED && now - observedSince > staleAfterMillis;
+            if ((state == UNINITIALIZED || stale) && LONG.compareAndSet(buffer, INIT_STATE_OFFSET, state, claim)) {
+                if (stale) {
+                    log.warn("shared error counters file={} was left half-initialized by pid={}, taking over", file, state >>> 8);
+                }
+                LONG.setVolatile(buffer, MAGIC_OFFSET, MAGIC);
+                LONG.setVolatile(buffer, LAYOUT_OFFSET, LAYOUT);
+                LONG.setVolatile(buffer, EPOCH_STARTED_AT_OFFSET, System.currentTimeMillis());
+                // 그 사이에 다른 인스턴스가 claim 을 빼앗았으면 READY 는 그쪽이 쓴다.
+                LONG.compareAndSet(buffer, INIT_STATE_OFFSET, claim, READY);
+                continue;
+            }
+            Thread.onSpinWait();
+        }
+
+        if ((long) LONG.getVolatile(buffer, MAGIC_OFFSET) != MAGIC
+                || (long) LONG.getVolatile(buffer, LAYOUT_OFFSET) != LAYOUT) {
+            throw new IllegalStateException("incompatible shared error counters file: " + file);
+        }
+    }
+
+    static long initializingClaim(long pid) {
+        return (pid << 8) | INITIALIZING;
+    }
+
+    private void registerInstance() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < INSTANCE_SLOTS; i++) {
+            int offset = instanceOffset(i);
+            long owner = (long) LONG.getVolatile(buffer, offset);
+            long lastBeat = (long) LONG.getVolatile(buffer, offset + 8);
+            boolean free = owner == 0 || now - lastBeat > staleAfterMillis;
+            if (free && LONG.compareAndSet(buffer, offset, owner, pid)) {
+                LONG.setVolatile(buffer, offset + 8, now);
+                instanceSlot = i;
+                return;
+            }
+        }
+        log.warn("no free instance slot, liveness of pid={} is not reported", pid);
+    }
+
+    private void beat() {
+        int slot = instanceSlot;
+        if (slot < 0) {
+            registerInstance();
+            return;
+        }
+        int offset = instanceOffset(slot);
+        if ((long) LONG.getVolatile(buffer, offset) != pid) {
+            // 오래 멈춰 있던 사이에 다른 인스턴스가 슬롯을 가져갔다.
+            instanceSlot = -1;
+            registerInstance();
+            return;
+        }
+        LONG.setVolatile(buffer, offset + 8, System.currentTimeMillis());
+    }
+
+    private int liveInstances() {
+        long now = System.currentTimeMillis();
+        int live = 0;
+        for (int i = 0; i < INSTANCE_SLOTS; i++) {
+            int offset = instanceOffset(i);
+            if ((long) LONG.getVolatile(buffer, offset) != 0
+                    && now - (long) LONG.getVolatile(buffer, offset + 8) <= staleAfterMillis) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    private void add(String prefix, String name) {
+        byte[] bytes = nameBytes(prefix, name);
+        long key = hash(bytes);
+
+        int start = (int) Long.remainderUnsigned(key, COUNTER_SLOTS);
+        for (int probe = 0; probe < COUNTER_SLOTS; probe++) {
+            int offset = counterOffset((start + probe) % COUNTER_SLOTS);
+            long current = (long) LONG.getVolatile(buffer, offset);
+
+            if (current == 0) {
+                if (!LONG.compareAndSet(buffer, offset, 0L, key)) {
+                    current = (long) LONG.getVolatile(buffer, offset);
+                } else {
+                    writeName(offset, bytes);
+                    current = key;
+                }
+            }
+            if (current == key) {
+                increment(offset + 8);
+                return;
+            }
+        }
+
+        if (dropped.getAndIncrement() == 0) {
+            log.warn("shared error counters table is full, dropping {}{}", prefix, name);
+        }
+    }
+
+    /*
+    *   슬롯의 epoch 가 현재 EPOCH 면 count 를 올리고, 이전 epoch 면 현재 EPOCH 의 1 로 바꾼다.
+    *   슬롯의 epoch 가 더 새로우면 그 사이에 reset() 이 있었던 것이므로 EPOCH 를 다시 읽는다.
+    * */
+    private void increment(int offset) {
+        while (true) {
+            long epoch = currentEpoch();
+            long value = (long) LONG.getVolatile(buffer, offset);
+            long slotEpoch = value >>> EPOCH_SHIFT;
+            long next;
+            if (slotEpoch == epoch) {
+                next = value + 1;
+            } else if ((short) (slotEpoch - epoch) > 0) {
+                continue;
+            } else {
+                next = (epoch << EPOCH_SHIFT) | 1;
+            }
+            if (LONG.compareAndSet(buffer, offset, value, next)) {
+                return;
+            }
+        }
+    }
+
+    private long currentEpoch() {
+        return (long) LONG.getVolatile(buffer, EPOCH_OFFSET) & EPOCH_MASK;
+    }
+
+    /*
+    *   이름이 너무 길면 prefix("ex:", "status:")는 그대로 두고 뒤쪽 이름에서 앞부분(패키지 쪽)을 잘라낸다.
+    *   잘린 부분만 다른 두 이름은 같은 슬롯에서 함께 센다.
+    * */
+    static byte[] nameBytes(String prefix, String name) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] suffixBytes = name.getBytes(StandardCharsets.UTF_8);
+        int keep = Math.min(suffixBytes.length, NAME_CAPACITY - prefixBytes.length);
+
+        byte[] bytes = new byte[prefixBytes.length + keep];
+        System.arraycopy(prefixBytes, 0, bytes, 0, prefixBytes.length);
+        System.arraycopy(suffixBytes, suffixBytes.length - keep, bytes, prefixBytes.length, keep);
+        return bytes;
+    }
+
+    int instanceSlot() {
+        return instanceSlot;
+    }
+
+    private void writeName(int offset, byte[] bytes) {
+        int nameOffset = offset + 24;
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(nameOffset + i, bytes[i]);
+        }
+        // 이름을 다 쓴 다음 길이를 공개해야 다른 인스턴스가 잘린 이름을 읽지 않는다.
+        LONG.setRelease(buffer, offset + 16, (long) bytes.length);
+    }
+
+    private String readName(int offset) {
+        int length = (int) (long) LONG.getAcquire(buffer, offset + 16);
+        if (length <= 0 || length > NAME_CAPACITY) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 24 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long hash(byte[] bytes) {
+        // FNV-1a 64bit, 0 은 빈 슬롯 표시이므로 사용하지 않는다.
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int instanceOffset(int slot) {
+        return INSTANCE_TABLE_OFFSET + slot * INSTANCE_SLOT_SIZE;
+    }
+
+    private static int counterOffset(int slot) {
+        return COUNTER_TABLE_OFFSET + slot * COUNTER_SLOT_SIZE;
+    }
+}
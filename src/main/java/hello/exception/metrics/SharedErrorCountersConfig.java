@@ -0,0 +1,30 @@
+package hello.exception.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+public class SharedErrorCountersConfig {
+
+    /*
+    *   hello.exception.shared-counters.enabled=true 이면 directory 아래의 카운터 파일을 같은 호스트의 인스턴스들과 공유한다.
+    *   꺼져 있으면 ErrorCounters.NOOP 을 사용한다.
+    * */
+
+    @Bean
+    public ErrorCounters errorCounters(
+            @Value("${hello.exception.shared-counters.enabled:false}") boolean enabled,
+            @Value("${hello.exception.shared-counters.directory:${java.io.tmpdir}/exception-counters}") String directory,
+            @Value("${hello.exception.shared-counters.heartbeat-millis:1000}") long heartbeatMillis,
+            @Value("${hello.exception.shared-counters.stale-after-millis:5000}") long staleAfterMillis) throws IOException {
+
+        if (!enabled) {
+            return ErrorCounters.NOOP;
+        }
+        return new SharedErrorCounters(Paths.get(directory), heartbeatMillis, staleAfterMillis);
+    }
+}
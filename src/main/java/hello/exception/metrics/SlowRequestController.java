@@ -0,0 +1,22 @@
+package hello.exception.metrics;
+
+import hello.exception.timeline.SlowestRequests;
+import hello.exception.timeline.TimelineSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class SlowRequestController {
+
+    private final SlowestRequests slowestRequests;
+
+    @GetMapping("/internal/slow-requests")
+    public Map<String, List<TimelineSnapshot>> slowRequests() {
+        return slowestRequests.dump();
+    }
+}
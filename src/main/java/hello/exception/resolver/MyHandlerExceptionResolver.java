@@ -1,5 +1,8 @@
 package hello.exception.resolver;
 
+import hello.exception.metrics.ErrorCounters;
+import hello.exception.warmup.ErrorPathWarmup;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.ModelAndView;
@@ -9,8 +12,11 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 @Slf4j
+@RequiredArgsConstructor
 public class MyHandlerExceptionResolver implements HandlerExceptionResolver {
 
+    private final ErrorCounters errorCounters;
+
     /*
     *   [ HandlerExceptionResolver ]
     *
@@ -29,11 +35,17 @@ public class MyHandlerExceptionResolver implements HandlerExceptionResolver {
     @Override
     public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
 
-        log.info("call resolver", ex);
+        boolean warmup = ErrorPathWarmup.isWarmup(request);
+        if (!warmup) {
+            log.info("call resolver", ex);
+        }
 
         try {
             if (ex instanceof IllegalArgumentException) {
-                log.info("IllegalArgumentException resolver to 400");
+                if (!warmup) {
+                    log.info("IllegalArgumentException resolver to 400");
+                    errorCounters.increment(ex, HttpServletResponse.SC_BAD_REQUEST);
+                }
                 response.sendError(HttpServletResponse.SC_BAD_REQUEST, ex.getMessage());
                 return new ModelAndView();
             }
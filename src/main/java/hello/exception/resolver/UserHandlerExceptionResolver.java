@@ -2,6 +2,9 @@ package hello.exception.resolver;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hello.exception.exception.UserException;
+import hello.exception.metrics.ErrorCounters;
+import hello.exception.warmup.ErrorPathWarmup;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.ModelAndView;
@@ -13,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
+@RequiredArgsConstructor
 public class UserHandlerExceptionResolver implements HandlerExceptionResolver {
 
     /*
@@ -38,6 +42,7 @@ public class UserHandlerExceptionResolver implements HandlerExceptionResolver {
 
 
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ErrorCounters errorCounters;
 
     @Override
     public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
@@ -45,7 +50,10 @@ public class UserHandlerExceptionResolver implements HandlerExceptionResolver {
         try {
 
             if (ex instanceof UserException) {
-                log.info("UserException resolver to 400");
+                if (!ErrorPathWarmup.isWarmup(request)) {
+                    log.info("UserException resolver to 400");
+                    errorCounters.increment(ex, HttpServletResponse.SC_BAD_REQUEST);
+                }
                 String acceptHeader = request.getHeader("accept");
                 response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
 
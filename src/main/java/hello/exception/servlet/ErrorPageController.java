@@ -1,20 +1,24 @@
 package hello.exception.servlet;
 
+import hello.exception.exhandler.error.ErrorBody;
+import hello.exception.exhandler.error.ErrorBodyWriter;
+import hello.exception.timeline.RequestTimeline;
+import hello.exception.timeline.Stage;
+import hello.exception.warmup.ErrorPathWarmup;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import javax.servlet.RequestDispatcher;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
 
 @Slf4j
 @Controller
+@RequiredArgsConstructor
 public class ErrorPageController {
 
     //RequestDispatcher 상수로 정의되어 있음
@@ -25,33 +29,41 @@ public class ErrorPageController {
     public static final String ERROR_SERVLET_NAME = "javax.servlet.error.servlet_name";// 오류가 발생한 서블릿 이름
     public static final String ERROR_STATUS_CODE = "javax.servlet.error.status_code"; // HTTP 상태 코드
 
+    private final ErrorBodyWriter errorBodyWriter;
+
     @RequestMapping("/error-page/404")
     public String errorPage404(HttpServletRequest request, HttpServletResponse response) {
-        log.info("errorPage 404");
-        printErrorInfo(request);
+        RequestTimeline.mark(Stage.ERROR_HANDLER);
+        printErrorInfo(request, "errorPage 404");
         return "error-page/404";
     }
 
     @RequestMapping("/error-page/500")
     public String errorPage500(HttpServletRequest request, HttpServletResponse response) {
-        log.info("errorPage 500");
-        printErrorInfo(request);
+        RequestTimeline.mark(Stage.ERROR_HANDLER);
+        printErrorInfo(request, "errorPage 500");
         return "error-page/500";
     }
 
     @RequestMapping(value = "/error-page/500", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Object>> errorPage500Api(
-            HttpServletRequest request, HttpServletResponse response) {
+    public void errorPage500Api(
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
 
-        log.info("API errorPage 500");
+        RequestTimeline.mark(Stage.ERROR_HANDLER);
+        if (!ErrorPathWarmup.isWarmup(request)) {
+            log.info("API errorPage 500");
+        }
 
-        Map<String, Object> result = new HashMap<>();
         Exception ex = (Exception) request.getAttribute(ERROR_EXCEPTION);
-        result.put("status", request.getAttribute(ERROR_STATUS_CODE));
-        result.put("message", ex.getMessage());
-
         Integer statusCode = (Integer) request.getAttribute(RequestDispatcher.ERROR_STATUS_CODE);
-        return new ResponseEntity<>(result, HttpStatus.valueOf(statusCode));
+
+        ErrorBody result = ErrorBody.reuse();
+        result.setStatus(statusCode);
+        result.setMessage(ex != null ? ex.getMessage() : null);
+        result.includeNullMessage(); // Map 으로 응답하던 때처럼 message 가 없어도 "message":null 을 쓴다.
+
+        response.setStatus(statusCode);
+        errorBodyWriter.write(result, response);
 
         /*
         * produces = MediaType.APPLICATION.JSON_VALUE 의 뜻은 클라이언트가 요청하는 HTTP Header의 Accept의 값이 application/json일 때
@@ -63,10 +75,20 @@ public class ErrorPageController {
         * Jackson 라이브러리는 Map을 JSON 구조로 변환할 수 있다.
         *
         * ResponseEntity 를 사용해서 응답하기 때문에 메시지 컨버터가 동작하면서 클라이언트에 JSON 이 반환된다.
+        *
+        * -> 지금은 Map 대신 재사용하는 ErrorBody 에 status, message 만 채우고 ErrorBodyWriter 로 바로 쓴다.
+        *    (오류마다 HashMap 을 만들고 Jackson 이 범용으로 직렬화하는 비용을 줄인다.)
         * */
     }
 
-    private void printErrorInfo(HttpServletRequest request) {
+    /*
+    *   워밍업 요청(ErrorPathWarmup)은 로그를 남기지 않는다.
+    * */
+    private void printErrorInfo(HttpServletRequest request, String title) {
+        if (ErrorPathWarmup.isWarmup(request)) {
+            return;
+        }
+        log.info(title);
         log.info("ERROR_EXCEPTION: {}", request.getAttribute(ERROR_EXCEPTION));
         log.info("ERROR_EXCEPTION_TYPE: {}", request.getAttribute(ERROR_EXCEPTION_TYPE));
         log.info("ERROR_MESSAGE: {}", request.getAttribute(ERROR_MESSAGE));
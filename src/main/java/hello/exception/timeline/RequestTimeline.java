@@ -0,0 +1,118 @@
+package hello.exception.timeline;
+
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+*   [ RequestTimeline ]
+*
+*   요청 한 건의 단계별 시각(System.nanoTime)을 기록한다.
+*   스레드마다 하나를 미리 만들어두고 요청마다 재사용한다. 기록은 배열에 long 하나 쓰는 것이 전부이다.
+*   느린 요청으로 뽑힌 경우에만 TimelineSnapshot 으로 복사한다.
+*
+*   ERROR 재요청은 같은 스레드에서 REQUEST 처리가 끝난 직후에 이어지므로 같은 타임라인에 이어서 기록한다.
+* */
+public final class RequestTimeline {
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ThreadLocal<RequestTimeline> CURRENT = ThreadLocal.withInitial(RequestTimeline::new);
+    private static final String UNMAPPED = "unmapped";
+
+    private final long[] stamps = new long[STAGES.length];
+    private boolean active;
+    private String endpoint;
+    private int status;
+
+    private RequestTimeline() {
+    }
+
+    public static RequestTimeline current() {
+        return CURRENT.get();
+    }
+
+    public static void mark(Stage stage) {
+        CURRENT.get().record(stage);
+    }
+
+    /*
+    *   핸들러가 정해진 뒤(인터셉터, ExceptionResolver)에 호출한다.
+    *   요청 URI 대신 매핑 패턴(/api/members/{id})을 키로 써야 엔드포인트 수가 늘어나지 않는다.
+    * */
+    public static void endpoint(HttpServletRequest request) {
+        RequestTimeline timeline = CURRENT.get();
+        if (timeline.active && timeline.endpoint == null) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                timeline.endpoint = request.getMethod() + " " + pattern;
+            }
+        }
+    }
+
+    void begin() {
+        Arrays.fill(stamps, 0L);
+        endpoint = null;
+        status = 0;
+        active = true;
+        stamps[Stage.REQUEST_START.ordinal()] = System.nanoTime();
+    }
+
+    void end() {
+        record(Stage.COMPLETE);
+        active = false;
+    }
+
+    /*
+    *   기다리던 ERROR 재요청이 오지 않은 타임라인을 다음 요청이 시작될 때 닫는다.
+    *   지금 시각으로 닫으면 요청 사이에 쉬던 시간까지 요청 시간이 되므로 REQUEST_END 시각으로 닫는다.
+    * */
+    void endStale() {
+        long requestEnd = stamps[Stage.REQUEST_END.ordinal()];
+        stamps[Stage.COMPLETE.ordinal()] = requestEnd != 0 ? requestEnd : System.nanoTime();
+        active = false;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    void record(Stage stage) {
+        if (active && stamps[stage.ordinal()] == 0) {
+            stamps[stage.ordinal()] = System.nanoTime();
+        }
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    void setStatus(int status) {
+        this.status = status;
+    }
+
+    String getEndpoint() {
+        return endpoint != null ? endpoint : UNMAPPED;
+    }
+
+    long totalNanos() {
+        return stamps[Stage.COMPLETE.ordinal()] - stamps[Stage.REQUEST_START.ordinal()];
+    }
+
+    TimelineSnapshot snapshot(int status) {
+        Map<String, Long> stageNanos = new LinkedHashMap<>();
+        int previous = -1;
+        for (int i = 0; i < STAGES.length; i++) {
+            if (stamps[i] == 0) {
+                continue;
+            }
+            if (previous >= 0) {
+                stageNanos.put(STAGES[previous].name(), stamps[i] - stamps[previous]);
+            }
+            previous = i;
+        }
+        return new TimelineSnapshot(getEndpoint(), status, totalNanos(), stageNanos);
+    }
+}
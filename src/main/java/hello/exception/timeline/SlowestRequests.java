@@ -0,0 +1,120 @@
+package hello.exception.timeline;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+*   [ SlowestRequests ]
+*
+*   엔드포인트마다 가장 느린 요청 N 건을 고정 크기 배열에 들고 있는다.
+*   - 배열이 가득 차면 floor(들고 있는 것 중 가장 빠른 요청 시간)보다 느린 요청만 들어올 수 있다.
+*     대부분의 요청은 floor 비교 한 번으로 끝나고 복사도 하지 않는다.
+*   - 자리 교체는 CAS 로 한다. (lock 없음) 동시에 같은 자리를 노리다 지면 몇 번 다시 시도하고 포기한다.
+*
+*   엔드포인트 수는 maxEndpoints 로 제한한다. 넘치면 "other" 에 모은다.
+* */
+public class SlowestRequests {
+
+    private static final String OTHER = "other";
+
+    private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+    private final int perEndpoint;
+    private final int maxEndpoints;
+
+    public SlowestRequests(int perEndpoint, int maxEndpoints) {
+        this.perEndpoint = perEndpoint;
+        this.maxEndpoints = maxEndpoints;
+    }
+
+    void record(RequestTimeline timeline, int status) {
+        long total = timeline.totalNanos();
+        Ring ring = ringOf(timeline.getEndpoint());
+        if (total > ring.floor) {
+            ring.offer(timeline.snapshot(status));
+        }
+    }
+
+    public Map<String, List<TimelineSnapshot>> dump() {
+        Map<String, List<TimelineSnapshot>> result = new TreeMap<>();
+        rings.forEach((endpoint, ring) -> result.put(endpoint, ring.sorted()));
+        return result;
+    }
+
+    private Ring ringOf(String endpoint) {
+        Ring ring = rings.get(endpoint);
+        if (ring != null) {
+            return ring;
+        }
+        String key = rings.size() < maxEndpoints ? endpoint : OTHER;
+        return rings.computeIfAbsent(key, k -> new Ring(perEndpoint));
+    }
+
+    private static final class Ring {
+
+        private static final int MAX_ATTEMPTS = 4;
+
+        private final AtomicReferenceArray<TimelineSnapshot> slots;
+        private volatile long floor;
+
+        Ring(int size) {
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+
+        void offer(TimelineSnapshot snapshot) {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                int minIndex = -1;
+                TimelineSnapshot min = null;
+                for (int i = 0; i < slots.length(); i++) {
+                    TimelineSnapshot current = slots.get(i);
+                    if (current == null) {
+                        minIndex = i;
+                        min = null;
+                        break;
+                    }
+                    if (min == null || current.getTotalNanos() < min.getTotalNanos()) {
+                        minIndex = i;
+                        min = current;
+                    }
+                }
+
+                if (min != null && snapshot.getTotalNanos() <= min.getTotalNanos()) {
+                    return;
+                }
+                if (slots.compareAndSet(minIndex, min, snapshot)) {
+                    updateFloor();
+                    return;
+                }
+            }
+        }
+
+        private void updateFloor() {
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < slots.length(); i++) {
+                TimelineSnapshot current = slots.get(i);
+                if (current == null) {
+                    floor = 0;
+                    return;
+                }
+                min = Math.min(min, current.getTotalNanos());
+            }
+            floor = min;
+        }
+
+        List<TimelineSnapshot> sorted() {
+            List<TimelineSnapshot> result = new ArrayList<>();
+            for (int i = 0; i < slots.length(); i++) {
+                TimelineSnapshot current = slots.get(i);
+                if (current != null) {
+                    result.add(current);
+                }
+            }
+            result.sort(Comparator.comparingLong(TimelineSnapshot::getTotalNanos).reversed());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package hello.exception.timeline;
+
+/*
+*   요청 한 건이 지나가는 지점들. 선언 순서가 시간 순서이다.
+*   한 지점의 소요 시간은 "그 지점 ~ 다음으로 기록된 지점" 까지이다.
+* */
+public enum Stage {
+    REQUEST_START,   // TimelineFilter (REQUEST)
+    PRE_HANDLE,      // LogInterceptor.preHandle 시작
+    HANDLER,         // LogInterceptor.preHandle 끝 -> 핸들러 호출
+    RESOLVER,        // ExceptionResolver 체인 시작
+    ADVICE,          // ExControllerAdvice @ExceptionHandler
+    RENDER,          // 뷰 렌더링 (TimelineViewResolver, 예외를 처리한 ExceptionResolver 가 돌려준 뷰 포함)
+    REQUEST_END,     // TimelineFilter (REQUEST) 끝
+    ERROR_DISPATCH,  // WAS 의 오류 페이지 재요청 (DispatcherType.ERROR)
+    ERROR_HANDLER,   // 오류 페이지 컨트롤러
+    ERROR_RENDER,    // Thymeleaf 오류 화면 렌더링 (TimelineViewResolver)
+    COMPLETE
+}
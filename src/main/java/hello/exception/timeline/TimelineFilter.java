@@ -0,0 +1,119 @@
+package hello.exception.timeline;
+
+import hello.exception.warmup.ErrorPathWarmup;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+
+public class TimelineFilter implements Filter {
+
+    /*
+    *   [ 요청 단계별 시간 측정 ]
+    *
+    *   WarmupRequestFilter 다음에 실행되는 필터로 REQUEST, ERROR 에 모두 등록한다.
+    *   워밍업 요청은 타임라인을 시작하지 않는다. (처음 몇 번의 느린 요청이 느린 요청 목록을 차지하지 않도록)
+    *
+    *   REQUEST : 타임라인을 시작하고 끝나면 REQUEST_END 를 기록한다.
+    *             예외가 WAS 까지 올라왔거나 sendError() 가 호출되었으면 곧 ERROR 재요청이 이어지므로 타임라인을 닫지 않는다.
+    *   ERROR   : ERROR_DISPATCH 를 기록하고 끝나면 타임라인을 닫는다.
+    *
+    *   닫힌 타임라인은 SlowestRequests 에 넘긴다.
+    * */
+
+    private final SlowestRequests slowestRequests;
+    private final ThreadLocal<ErrorTrackingResponse> responses = new ThreadLocal<>();
+
+    public TimelineFilter(SlowestRequests slowestRequests) {
+        this.slowestRequests = slowestRequests;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        RequestTimeline timeline = RequestTimeline.current();
+
+        if (request.getDispatcherType() == DispatcherType.ERROR) {
+            timeline.record(Stage.ERROR_DISPATCH);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                finish(timeline, httpResponse.getStatus());
+            }
+            return;
+        }
+
+        if (timeline.isActive()) {
+            // 이전 요청의 ERROR 재요청이 오지 않았다.
+            timeline.endStale();
+            slowestRequests.record(timeline, timeline.getStatus());
+        }
+
+        if (ErrorPathWarmup.isWarmup(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ErrorTrackingResponse tracking = track(httpResponse);
+        boolean errorDispatchFollows = true;
+        timeline.begin();
+        try {
+            chain.doFilter(request, tracking);
+            errorDispatchFollows = tracking.errorSent;
+        } finally {
+            timeline.record(Stage.REQUEST_END);
+            timeline.setStatus(httpResponse.getStatus());
+            if (!errorDispatchFollows) {
+                finish(timeline, timeline.getStatus());
+            }
+        }
+    }
+
+    private void finish(RequestTimeline timeline, int status) {
+        if (timeline.isActive()) {
+            timeline.end();
+            slowestRequests.record(timeline, status);
+        }
+    }
+
+    private ErrorTrackingResponse track(HttpServletResponse response) {
+        ErrorTrackingResponse tracking = responses.get();
+        if (tracking == null) {
+            tracking = new ErrorTrackingResponse(response);
+            responses.set(tracking);
+        } else {
+            tracking.reset(response);
+        }
+        return tracking;
+    }
+
+    /*
+    *   sendError() 호출 여부만 기억하는 response wrapper. 스레드마다 하나를 재사용한다.
+    * */
+    private static final class ErrorTrackingResponse extends HttpServletResponseWrapper {
+
+        private boolean errorSent;
+
+        ErrorTrackingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void reset(HttpServletResponse response) {
+            setResponse(response);
+            errorSent = false;
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            errorSent = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            errorSent = true;
+            super.sendError(sc);
+        }
+    }
+}
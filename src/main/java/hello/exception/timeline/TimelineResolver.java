@@ -0,0 +1,21 @@
+package hello.exception.timeline;
+
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/*
+*   ExceptionResolver 체인 맨 앞에서 RESOLVER 시각만 기록한다.
+*   null 을 반환하므로 다음 ExceptionResolver 가 그대로 실행된다.
+* */
+public class TimelineResolver implements HandlerExceptionResolver {
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestTimeline.endpoint(request);
+        RequestTimeline.mark(Stage.RESOLVER);
+        return null;
+    }
+}
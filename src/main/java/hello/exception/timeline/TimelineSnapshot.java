@@ -0,0 +1,16 @@
+package hello.exception.timeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class TimelineSnapshot {
+    private String endpoint;
+    private int status;
+    private long totalNanos;
+    private Map<String, Long> stageNanos;
+}
+// 느린 요청으로 뽑힌 RequestTimeline 의 복사본이다. (/internal/slow-requests 응답)
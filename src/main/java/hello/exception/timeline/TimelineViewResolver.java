@@ -0,0 +1,37 @@
+package hello.exception.timeline;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import javax.servlet.DispatcherType;
+import java.util.Locale;
+
+/*
+*   DispatcherServlet 이 뷰 이름을 View 로 바꾸기 시작할 때 렌더링 시작 시각을 기록한다.
+*   가장 먼저 불리도록 HIGHEST_PRECEDENCE 로 두고 null 을 반환해서 실제 ViewResolver 로 넘긴다.
+*
+*   postHandle 은 핸들러가 예외를 던지면 불리지 않지만, 이 시점은 ExceptionResolver 가 돌려준 뷰나
+*   ERROR 재요청의 오류 화면을 렌더링할 때도 지나간다.
+*   REQUEST 에서는 RENDER, ERROR 재요청에서는 ERROR_RENDER 로 기록한다.
+* */
+public class TimelineViewResolver implements ViewResolver, Ordered {
+
+    @Override
+    public View resolveViewName(String viewName, Locale locale) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            boolean error = ((ServletRequestAttributes) attributes).getRequest().getDispatcherType() == DispatcherType.ERROR;
+            RequestTimeline.mark(error ? Stage.ERROR_RENDER : Stage.RENDER);
+        }
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
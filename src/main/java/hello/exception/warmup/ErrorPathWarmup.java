@@ -0,0 +1,130 @@
+package hello.exception.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.ServletRequest;
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@Component
+public class ErrorPathWarmup {
+
+    /*
+    *   [ 오류 경로 JIT 워밍업 ]
+    *
+    *   배포 직후에는 ExceptionResolver, ExControllerAdvice, ErrorPageController, Thymeleaf 오류 화면 코드가
+    *   아직 인터프리터로 실행되어서 첫 오류 요청들의 p99 가 튄다.
+    *
+    *   ApplicationReadyEvent 리스너는 readiness 가 ACCEPTING_TRAFFIC 으로 바뀌기 직전에 같은 스레드에서 실행된다.
+    *   여기서 등록된 오류 경로 전체에 자기 자신(loopback)으로 요청을 보내고, 끝난 다음에야 readiness 가 열린다.
+    *
+    *   - 최대 iterations 번 반복한다.
+    *   - min-iterations 이후에는 한 바퀴 동안 늘어난 JIT 컴파일 시간이 compile-threshold-millis 보다 작으면
+    *     (더 컴파일할 것이 거의 없으면) 일찍 끝낸다.
+    *
+    *   워밍업 요청에는 WARMUP_HEADER 를 붙인다. (HeavyHitterFilter 가 loopback 의 워밍업 요청은 세지 않는다.)
+    * */
+
+    public static final String WARMUP_HEADER = "X-Warmup";
+    public static final String WARMUP_ATTRIBUTE = ErrorPathWarmup.class.getName() + ".WARMUP";
+
+    private static final List<String> PATHS = List.of(
+            "/api/members/spring", "/api/members/ex", "/api/members/bad", "/api/members/user-ex",
+            "/api2/members/spring", "/api2/members/ex", "/api2/members/bad", "/api2/members/user-ex",
+            "/api3/members/spring", "/api3/members/ex", "/api3/members/bad", "/api3/members/user-ex",
+            "/api/response-status-ex1", "/api/response-status-ex2", "/api/default-handler-ex?data=qqq",
+            "/error-ex", "/error-404", "/error-400", "/error-500");
+
+    private static final List<String> ACCEPTS = List.of("application/json", "text/html");
+
+    private final boolean enabled;
+    private final int iterations;
+    private final int minIterations;
+    private final long compileThresholdMillis;
+
+    public ErrorPathWarmup(@Value("${hello.exception.warmup.enabled:false}") boolean enabled,
+                           @Value("${hello.exception.warmup.iterations:200}") int iterations,
+                           @Value("${hello.exception.warmup.min-iterations:20}") int minIterations,
+                           @Value("${hello.exception.warmup.compile-threshold-millis:5}") long compileThresholdMillis) {
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.minIterations = minIterations;
+        this.compileThresholdMillis = compileThresholdMillis;
+    }
+
+    /*
+    *   WarmupRequestFilter 가 워밍업 요청으로 표시한 요청인지 확인한다.
+    *   워밍업 요청은 오류 카운터, 느린 요청 타임라인, 스택 트레이스 로그에 남기지 않는다.
+    * */
+    public static boolean isWarmup(ServletRequest request) {
+        return request.getAttribute(WARMUP_ATTRIBUTE) != null;
+    }
+
+    @EventListener
+    public void warmup(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext)) {
+            return;
+        }
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean compileTimeSupported = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+
+        long start = System.nanoTime();
+        long compileTime = compileTimeSupported ? compilation.getTotalCompilationTime() : 0;
+        int iteration = 0;
+        while (iteration < iterations) {
+            iteration++;
+            round(client, port);
+
+            if (compileTimeSupported && iteration >= minIterations) {
+                long current = compilation.getTotalCompilationTime();
+                long delta = current - compileTime;
+                compileTime = current;
+                if (delta < compileThresholdMillis) {
+                    break;
+                }
+            }
+        }
+
+        log.info("error path warmup done iterations={} elapsed={}ms jitCompileTime={}ms",
+                iteration, Duration.ofNanos(System.nanoTime() - start).toMillis(), compileTime);
+    }
+
+    private void round(HttpClient client, int port) {
+        for (String path : PATHS) {
+            for (String accept : ACCEPTS) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("Accept", accept)
+                        .header(WARMUP_HEADER, "true")
+                        .timeout(Duration.ofSeconds(5))
+                        .GET()
+                        .build();
+                try {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                } catch (IOException e) {
+                    log.warn("warmup request failed {} {}", path, e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package hello.exception.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+*   로드 밸런서 readiness 확인용. ErrorPathWarmup 이 끝나기 전까지는 503 을 응답한다.
+* */
+@RestController
+@RequiredArgsConstructor
+public class ReadinessController {
+
+    private final ApplicationAvailability availability;
+
+    @GetMapping("/internal/ready")
+    public ResponseEntity<String> ready() {
+        ReadinessState state = availability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(state.name());
+    }
+}
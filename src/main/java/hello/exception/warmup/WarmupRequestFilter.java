@@ -0,0 +1,33 @@
+package hello.exception.warmup;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+public class WarmupRequestFilter implements Filter {
+
+    /*
+    *   ErrorPathWarmup 이 보낸 요청에 표시(요청 속성)를 남긴다. 가장 먼저 실행되는 필터로 REQUEST 에만 등록한다.
+    *   ERROR 재요청은 같은 request 객체를 쓰므로 표시가 그대로 남아 있다.
+    *
+    *   X-Warmup 헤더는 누구나 보낼 수 있으므로 자기 자신(loopback)이 직접 보낸 요청만 믿는다. (X-Forwarded-For 가 있으면 밸런서를 거친 요청)
+    *   표시가 있는 요청은 HeavyHitterFilter, TimelineFilter, 오류 카운터, 스택 트레이스 로그에서 빠진다. -> ErrorPathWarmup.isWarmup()
+    * */
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (httpRequest.getHeader(ErrorPathWarmup.WARMUP_HEADER) != null
+                && httpRequest.getHeader(FORWARDED_FOR) == null
+                && isLoopback(httpRequest.getRemoteAddr())) {
+            request.setAttribute(ErrorPathWarmup.WARMUP_ATTRIBUTE, Boolean.TRUE);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isLoopback(String address) {
+        return address.startsWith("127.") || address.equals("0:0:0:0:0:0:0:1") || address.equals("::1");
+    }
+}
@@ -0,0 +1,280 @@
+package hello.exception;
+
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/*
+*   [ 오류 경로 할당량 회귀 테스트 ]
+*
+*   프레임워크를 올렸을 때 오류 응답 하나당 할당량이 조용히 늘어나는 것을 잡는다.
+*   ThreadMXBean.getThreadAllocatedBytes 로 요청 하나당 할당한 바이트를 재고,
+*   allocation-budgets.properties 에 기록된 예산을 넘으면 실패한다.
+*
+*   1. dispatcherPath : MockMvc 로 같은 스레드에서 요청을 보낸다. (DispatcherServlet + ExceptionResolver 까지)
+*      MockMvc 는 ERROR 디스패치(/error)를 하지 않으므로 컨트롤러 밖으로 예외가 나가는 경로는 여기서 잴 수 없다.
+*      이 프로젝트에서는 api 패키지의 컨트롤러 예외를 ExControllerAdvice 의 Exception 핸들러가 모두 잡기 때문에
+*      BadRequestException, ResponseStatusException, TypeMismatchException 도 advice 에서 500 으로 끝난다.
+*      (ResponseStatusExceptionResolver, DefaultHandlerExceptionResolver, MyHandlerExceptionResolver,
+*       UserHandlerExceptionResolver 는 api 요청에서 불리지 않는다.)
+*   2. errorDispatch : 실제 서버(RANDOM_PORT)로 요청을 보내고, 엔진 밸브(AllocationValve)가 워커 스레드에서 잰다.
+*      sendError() 와 컨트롤러 밖으로 나간 예외가 /error 로 다시 디스패치되는 경로
+*      (ErrorBulkheadFilter -> FlyweightErrorController JSON / 오류 화면 렌더링)를 포함한다.
+*
+*   - WARMUP 번 먼저 보내서 지연 초기화, 캐시 채우기를 끝낸다.
+*   - BATCHES 번 BATCH_SIZE 개씩 재고 가장 작은 배치의 평균을 쓴다. (GC, 한 번만 일어나는 할당을 제외하기 위해)
+*   - heavy-hitter 는 같은 클라이언트의 오류를 429 로 끊으므로 끈다.
+*   - 로그는 콘솔 출력량이 측정을 흔들지 않도록 끈다.
+*
+*   예산 다시 기록하기
+*   ./gradlew test --tests '*ErrorPathAllocationTests' -Pallocation.record=true
+*   -> build/allocation-budgets.properties 에 측정값 + 여유분(RECORD_HEADROOM)을 쓴다. (실패시키지 않는다)
+*   -> 확인한 다음 src/test/resources/allocation-budgets.properties 로 복사한다.
+* */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"hello.exception.heavy-hitter.enabled=false",
+		"hello.exception.warmup.enabled=false",
+		"logging.level.hello.exception=off",
+		"logging.level.org.apache.catalina.core=off"
+})
+@AutoConfigureMockMvc
+class ErrorPathAllocationTests {
+
+	private static final int WARMUP = 500;
+	private static final int BATCHES = 5;
+	private static final int BATCH_SIZE = 100;
+	private static final double RECORD_HEADROOM = 1.25;
+
+	private static final String BUDGETS = "allocation-budgets.properties";
+	private static final boolean RECORD = Boolean.getBoolean("allocation.record");
+
+	private static final BlockingQueue<Long> serverAllocations = new LinkedBlockingQueue<>();
+
+	private static com.sun.management.ThreadMXBean threadMXBean;
+	private static Properties budgets;
+	private static Properties recorded;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	static Stream<Arguments> dispatcherScenarios() {
+		return Stream.of(
+				// ApiExceptionController
+				Arguments.of("api-ex", "/api/members/ex", 500),
+				Arguments.of("api-bad", "/api/members/bad", 400),
+				Arguments.of("api-user-ex", "/api/members/user-ex", 400),
+				// ApiExceptionV2Controller
+				Arguments.of("api2-ex", "/api2/members/ex", 500),
+				Arguments.of("api2-bad", "/api2/members/bad", 400),
+				Arguments.of("api2-user-ex", "/api2/members/user-ex", 400),
+				// ApiExceptionV3Controller
+				Arguments.of("api3-ex", "/api3/members/ex", 500),
+				Arguments.of("api3-bad", "/api3/members/bad", 400),
+				Arguments.of("api3-user-ex", "/api3/members/user-ex", 400),
+				// BadRequestException, ResponseStatusException, TypeMismatchException (ExControllerAdvice 의 Exception 핸들러)
+				Arguments.of("response-status-ex1", "/api/response-status-ex1", 500),
+				Arguments.of("response-status-ex2", "/api/response-status-ex2", 500),
+				Arguments.of("type-mismatch", "/api/default-handler-ex?data=qqq", 500)
+		);
+	}
+
+	static Stream<Arguments> errorDispatchScenarios() {
+		return Stream.of(
+				// ServletExController -> /error (FlyweightErrorController)
+				Arguments.of("dispatch-error-ex", "/error-ex", MediaType.APPLICATION_JSON, 500),
+				Arguments.of("dispatch-error-400", "/error-400", MediaType.APPLICATION_JSON, 400),
+				Arguments.of("dispatch-error-404", "/error-404", MediaType.APPLICATION_JSON, 404),
+				Arguments.of("dispatch-error-500", "/error-500", MediaType.APPLICATION_JSON, 500),
+				// 오류 화면 (templates/error/4xx.html, 500.html)
+				Arguments.of("dispatch-error-ex-html", "/error-ex", MediaType.TEXT_HTML, 500),
+				Arguments.of("dispatch-error-404-html", "/error-404", MediaType.TEXT_HTML, 404)
+		);
+	}
+
+	@BeforeAll
+	static void setUp() throws Exception {
+		Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+				"com.sun.management.ThreadMXBean 을 지원하지 않는 JVM");
+		threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "스레드 할당량 측정을 지원하지 않는 JVM");
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+		budgets = new Properties();
+		try (InputStream in = ErrorPathAllocationTests.class.getClassLoader().getResourceAsStream(BUDGETS)) {
+			if (in != null) {
+				budgets.load(in);
+			}
+		}
+		recorded = new Properties();
+	}
+
+	@AfterAll
+	static void writeRecorded(TestReporter reporter) throws Exception {
+		if (!RECORD || recorded == null || recorded.isEmpty()) {
+			return;
+		}
+		Path path = Paths.get("build", BUDGETS);
+		Files.createDirectories(path.getParent());
+		try (OutputStream out = Files.newOutputStream(path)) {
+			recorded.store(out, "bytes allocated per request (measured x " + RECORD_HEADROOM + ")");
+		}
+		reporter.publishEntry("allocation.recorded", path.toAbsolutePath().toString());
+	}
+
+	@ParameterizedTest(name = "{0} {1} -> {2}")
+	@MethodSource("dispatcherScenarios")
+	void dispatcherPath(String scenario, String url, int expectedStatus, TestReporter reporter) throws Exception {
+		MockHttpServletRequestBuilder request = get(url).accept(MediaType.APPLICATION_JSON);
+
+		assertThat(perform(request)).as(url).isEqualTo(expectedStatus);
+
+		for (int i = 0; i < WARMUP; i++) {
+			perform(request);
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long bytesPerRequest = Long.MAX_VALUE;
+		for (int batch = 0; batch < BATCHES; batch++) {
+			long before = threadMXBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				perform(request);
+			}
+			long after = threadMXBean.getThreadAllocatedBytes(threadId);
+			bytesPerRequest = Math.min(bytesPerRequest, (after - before) / BATCH_SIZE);
+		}
+		checkBudget(scenario, bytesPerRequest, reporter);
+	}
+
+	@ParameterizedTest(name = "{0} {1} {2} -> {3}")
+	@MethodSource("errorDispatchScenarios")
+	void errorDispatch(String scenario, String url, MediaType accept, int expectedStatus, TestReporter reporter) throws Exception {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(List.of(accept));
+		HttpEntity<Void> request = new HttpEntity<>(headers);
+
+		serverAllocations.clear();
+		for (int i = 0; i < WARMUP; i++) {
+			exchange(url, request, expectedStatus);
+		}
+
+		long bytesPerRequest = Long.MAX_VALUE;
+		for (int batch = 0; batch < BATCHES; batch++) {
+			long total = 0;
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				total += exchange(url, request, expectedStatus);
+			}
+			bytesPerRequest = Math.min(bytesPerRequest, total / BATCH_SIZE);
+		}
+		checkBudget(scenario, bytesPerRequest, reporter);
+	}
+
+	private void checkBudget(String scenario, long bytesPerRequest, TestReporter reporter) {
+		reporter.publishEntry("allocation." + scenario, bytesPerRequest + " bytes/request");
+
+		if (RECORD) {
+			recorded.setProperty(scenario, String.valueOf((long) (bytesPerRequest * RECORD_HEADROOM)));
+			return;
+		}
+
+		String budget = budgets.getProperty(scenario);
+		assertThat(budget).as("%s 에 %s 예산이 없다. -Pallocation.record=true 로 기록할 것", BUDGETS, scenario).isNotNull();
+		assertThat(bytesPerRequest)
+				.as("%s 요청 하나당 할당량이 예산을 넘었다", scenario)
+				.isLessThanOrEqualTo(Long.parseLong(budget.trim()));
+	}
+
+	private int perform(MockHttpServletRequestBuilder request) throws Exception {
+		return mockMvc.perform(request).andReturn().getResponse().getStatus();
+	}
+
+	/*
+	*   서버에서 이 요청을 처리하면서 할당한 바이트를 돌려준다.
+	*   밸브는 응답을 다 쓴 다음에 값을 넣으므로 클라이언트가 응답을 받은 뒤에 조금 늦게 들어올 수 있다.
+	*   요청마다 하나씩 기다려서 꺼내므로 다음 요청의 값과 섞이지 않는다.
+	* */
+	private long exchange(String url, HttpEntity<Void> request, int expectedStatus) throws InterruptedException {
+		int status = restTemplate.exchange(url, HttpMethod.GET, request, String.class).getStatusCodeValue();
+		assertThat(status).as(url).isEqualTo(expectedStatus);
+
+		Long allocated = serverAllocations.poll(5, TimeUnit.SECONDS);
+		assertThat(allocated).as("AllocationValve 가 %s 를 재지 못했다", url).isNotNull();
+		return allocated;
+	}
+
+	@TestConfiguration
+	static class AllocationValveConfig {
+
+		@Bean
+		WebServerFactoryCustomizer<TomcatServletWebServerFactory> allocationValveCustomizer() {
+			return factory -> factory.addEngineValves(new AllocationValve());
+		}
+	}
+
+	/*
+	*   엔진 밸브는 호스트의 StandardHostValve 바깥에서 돌기 때문에
+	*   REQUEST 디스패치와 그 뒤에 이어지는 ERROR 디스패치(/error)를 모두 같은 워커 스레드에서 잴 수 있다.
+	* */
+	static class AllocationValve extends ValveBase {
+
+		private final com.sun.management.ThreadMXBean threadMXBean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		AllocationValve() {
+			super(true);
+		}
+
+		@Override
+		public void invoke(Request request, Response response) throws IOException, ServletException {
+			long threadId = Thread.currentThread().getId();
+			long before = threadMXBean.getThreadAllocatedBytes(threadId);
+			try {
+				getNext().invoke(request, response);
+			} finally {
+				serverAllocations.offer(threadMXBean.getThreadAllocatedBytes(threadId) - before);
+			}
+		}
+	}
+
+}
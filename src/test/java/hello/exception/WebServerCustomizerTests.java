@@ -0,0 +1,115 @@
+package hello.exception;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.Valve;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.catalina.valves.ErrorReportValve;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebServerCustomizerTests {
+
+	private TomcatWebServer webServer;
+
+	@AfterEach
+	void stop() {
+		if (webServer != null) {
+			webServer.stop();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = TomcatProfile.class, names = "DEFAULT", mode = EnumSource.Mode.EXCLUDE)
+	void profileIsAppliedToConnectorAndErrorReportValve(TomcatProfile profile) {
+		TomcatProfile.Settings settings = profile.getSettings();
+		Tomcat tomcat = start(profile);
+
+		Connector connector = connector(tomcat);
+		AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+		assertThat(protocol.getMaxThreads()).isEqualTo(settings.getMaxThreads());
+		assertThat(protocol.getMinSpareThreads()).isEqualTo(settings.getMinSpareThreads());
+		assertThat(protocol.getAcceptCount()).isEqualTo(settings.getAcceptCount());
+		assertThat(protocol.getMaxConnections()).isEqualTo(settings.getMaxConnections());
+		assertThat(protocol.getConnectionTimeout()).isEqualTo(settings.getConnectionTimeout());
+		assertThat(protocol.getKeepAliveTimeout()).isEqualTo(settings.getKeepAliveTimeout());
+		assertThat(protocol.getTcpNoDelay()).isEqualTo(settings.isTcpNoDelay());
+		assertThat(((AbstractHttp11Protocol<?>) protocol).getMaxKeepAliveRequests()).isEqualTo(settings.getMaxKeepAliveRequests());
+		assertThat(connector.getProperty("socket.rxBufSize")).isEqualTo(String.valueOf(settings.getSocketBufferSize()));
+		assertThat(connector.getProperty("socket.txBufSize")).isEqualTo(String.valueOf(settings.getSocketBufferSize()));
+		assertThat(connector.getProperty("socket.appWriteBufSize")).isEqualTo(String.valueOf(settings.getResponseBufferSize()));
+
+		ErrorReportValve valve = errorReportValve(tomcat.getHost());
+		assertThat(valve.isShowReport()).isEqualTo(settings.isShowReport());
+		assertThat(valve.isShowServerInfo()).isEqualTo(settings.isShowServerInfo());
+	}
+
+	@Test
+	void defaultProfileChangesNothing() {
+		Tomcat customized = start(TomcatProfile.DEFAULT);
+		AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector(customized).getProtocolHandler();
+		ErrorReportValve valve = errorReportValve(customized.getHost());
+		int maxThreads = protocol.getMaxThreads();
+		int acceptCount = protocol.getAcceptCount();
+		int keepAliveTimeout = protocol.getKeepAliveTimeout();
+		boolean showReport = valve.isShowReport();
+		boolean showServerInfo = valve.isShowServerInfo();
+		webServer.stop();
+
+		// 커스터마이저 없이 만든 Tomcat 과 같아야 한다.
+		TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+		webServer = (TomcatWebServer) factory.getWebServer();
+		webServer.start();
+		Tomcat plain = webServer.getTomcat();
+		AbstractProtocol<?> plainProtocol = (AbstractProtocol<?>) connector(plain).getProtocolHandler();
+		ErrorReportValve plainValve = errorReportValve(plain.getHost());
+
+		assertThat(maxThreads).isEqualTo(plainProtocol.getMaxThreads());
+		assertThat(acceptCount).isEqualTo(plainProtocol.getAcceptCount());
+		assertThat(keepAliveTimeout).isEqualTo(plainProtocol.getKeepAliveTimeout());
+		assertThat(showReport).isEqualTo(plainValve.isShowReport());
+		assertThat(showServerInfo).isEqualTo(plainValve.isShowServerInfo());
+	}
+
+	@Test
+	void defaultProfileHasNoSettings() {
+		assertThat(TomcatProfile.DEFAULT.isCustomized()).isFalse();
+		assertThatThrownBy(TomcatProfile.DEFAULT::getSettings).isInstanceOf(IllegalStateException.class);
+	}
+
+	private Tomcat start(TomcatProfile profile) {
+		TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+		new WebServerCustomizer(profile.name(), false).customize(factory);
+		webServer = (TomcatWebServer) factory.getWebServer();
+		webServer.start();
+		return webServer.getTomcat();
+	}
+
+	/*
+	*   Tomcat.getConnector() 는 서비스에 커넥터가 없으면 기본 커넥터를 새로 만들기 때문에 쓰지 않는다.
+	*   (TomcatWebServer 는 start() 전까지 커넥터를 서비스에서 빼 둔다.)
+	* */
+	private static Connector connector(Tomcat tomcat) {
+		Connector[] connectors = tomcat.getService().findConnectors();
+		assertThat(connectors).hasSize(1);
+		return connectors[0];
+	}
+
+	private static ErrorReportValve errorReportValve(Container host) {
+		for (Valve valve : host.getPipeline().getValves()) {
+			if (valve instanceof ErrorReportValve) {
+				return (ErrorReportValve) valve;
+			}
+		}
+		throw new AssertionError("ErrorReportValve 가 없다");
+	}
+}
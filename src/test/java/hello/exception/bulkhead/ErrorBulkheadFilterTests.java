@@ -0,0 +1,56 @@
+package hello.exception.bulkhead;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.RequestDispatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorBulkheadFilterTests {
+
+	// permit 이 하나도 없으니 항상 미리 만들어 둔 응답을 쓴다.
+	private final ErrorBulkheadFilter filter = new ErrorBulkheadFilter(new ErrorBulkhead(true, 0));
+
+	@Test
+	void jsonBodyFollowsActualStatus() throws Exception {
+		assertThat(saturated(400, null).getContentAsString()).isEqualTo("{\"code\":\"400\",\"message\":\"Bad Request\"}");
+		assertThat(saturated(401, null).getContentAsString()).isEqualTo("{\"code\":\"401\",\"message\":\"Unauthorized\"}");
+		assertThat(saturated(404, null).getContentAsString()).isEqualTo("{\"code\":\"404\",\"message\":\"Not Found\"}");
+		assertThat(saturated(500, null).getContentAsString()).isEqualTo("{\"code\":\"500\",\"message\":\"Internal Server Error\"}");
+	}
+
+	@Test
+	void statusIsKept() throws Exception {
+		assertThat(saturated(404, null).getStatus()).isEqualTo(404);
+		assertThat(saturated(503, "text/html").getStatus()).isEqualTo(503);
+	}
+
+	@Test
+	void htmlBodyFollowsActualStatus() throws Exception {
+		assertThat(saturated(404, "text/html").getContentAsString()).contains("<h2>404 Not Found</h2>");
+		assertThat(saturated(503, "text/html").getContentAsString()).contains("<h2>503 Service Unavailable</h2>");
+	}
+
+	@Test
+	void unknownStatusGetsStatusClassBody() throws Exception {
+		assertThat(saturated(499, null).getContentAsString()).isEqualTo("{\"code\":\"4xx\",\"message\":\"Client Error\"}");
+		assertThat(saturated(599, null).getContentAsString()).isEqualTo("{\"code\":\"5xx\",\"message\":\"Server Error\"}");
+	}
+
+	private MockHttpServletResponse saturated(int status, String accept) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/error");
+		request.setAttribute(RequestDispatcher.ERROR_STATUS_CODE, status);
+		if (accept != null) {
+			request.addHeader("Accept", accept);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, response, chain);
+		assertThat(chain.getRequest()).isNull();
+		response.setCharacterEncoding("UTF-8");
+		return response;
+	}
+}
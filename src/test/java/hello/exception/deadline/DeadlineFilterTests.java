@@ -0,0 +1,51 @@
+package hello.exception.deadline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineFilterTests {
+
+	private final DeadlineFilter filter = new DeadlineFilter(null, 5000, "/api/members/=2000");
+	private final DeadlineFilter noDefault = new DeadlineFilter(null, 0, "");
+
+	@Test
+	void configuredTimeoutWithoutHeader() {
+		assertThat(filter.timeoutOf(request("/api/members/spring", null))).isEqualTo(2000);
+		assertThat(filter.timeoutOf(request("/api2/members/spring", null))).isEqualTo(5000);
+	}
+
+	@Test
+	void shorterHeaderWins() {
+		assertThat(filter.timeoutOf(request("/api/members/spring", "300"))).isEqualTo(300);
+		assertThat(filter.timeoutOf(request("/api2/members/spring", "300"))).isEqualTo(300);
+	}
+
+	@Test
+	void headerCannotExtendConfiguredTimeout() {
+		assertThat(filter.timeoutOf(request("/api/members/spring", "60000"))).isEqualTo(2000);
+		assertThat(filter.timeoutOf(request("/api2/members/spring", "60000"))).isEqualTo(5000);
+	}
+
+	@Test
+	void nonPositiveOrInvalidHeaderIsIgnored() {
+		assertThat(filter.timeoutOf(request("/api/members/spring", "0"))).isEqualTo(2000);
+		assertThat(filter.timeoutOf(request("/api/members/spring", "-1"))).isEqualTo(2000);
+		assertThat(filter.timeoutOf(request("/api/members/spring", "abc"))).isEqualTo(2000);
+		assertThat(noDefault.timeoutOf(request("/api/members/spring", "0"))).isEqualTo(0);
+	}
+
+	@Test
+	void headerAppliesWhenNothingIsConfigured() {
+		assertThat(noDefault.timeoutOf(request("/api/members/spring", "300"))).isEqualTo(300);
+	}
+
+	private static MockHttpServletRequest request(String uri, String deadline) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		if (deadline != null) {
+			request.addHeader(DeadlineFilter.DEADLINE_HEADER, deadline);
+		}
+		return request;
+	}
+}
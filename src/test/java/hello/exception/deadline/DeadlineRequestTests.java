@@ -0,0 +1,83 @@
+package hello.exception.deadline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+*   TimerWheel 이 실제로 deadline 을 만료시키고, 핸들러가 끝난 뒤 확인 지점에서 503 으로 바뀌는지 본다.
+*   /deadline-test/ 경로의 deadline 은 300ms 이다.
+* */
+@SpringBootTest(properties = {
+		"hello.exception.deadline.routes=/deadline-test/=300",
+		"hello.exception.heavy-hitter.enabled=false",
+		"logging.level.hello.exception=off"
+})
+@AutoConfigureMockMvc
+class DeadlineRequestTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Test
+	void handlerFinishingInTimeAnswersNormally() throws Exception {
+		mockMvc.perform(get("/deadline-test/sleep").param("millis", "0"))
+				.andExpect(status().isOk())
+				.andExpect(content().string("done"));
+	}
+
+	@Test
+	void handlerOverrunningRouteDeadlineGets503() throws Exception {
+		mockMvc.perform(get("/deadline-test/sleep").param("millis", "600"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(jsonPath("$.code").value("DEADLINE"));
+	}
+
+	@Test
+	void headerShortensTheDeadline() throws Exception {
+		mockMvc.perform(get("/deadline-test/sleep").param("millis", "150")
+						.header(DeadlineFilter.DEADLINE_HEADER, "30"))
+				.andExpect(status().isServiceUnavailable());
+	}
+
+	@Test
+	void headerCannotExtendTheDeadline() throws Exception {
+		mockMvc.perform(get("/deadline-test/sleep").param("millis", "600")
+						.header(DeadlineFilter.DEADLINE_HEADER, "60000"))
+				.andExpect(status().isServiceUnavailable());
+	}
+
+	@TestConfiguration
+	static class SleepControllerConfig {
+
+		@Bean
+		SleepController sleepController() {
+			return new SleepController();
+		}
+	}
+
+	// @Controller 를 붙이면 다른 테스트의 컴포넌트 스캔에도 걸리므로 @Bean 으로만 등록한다.
+	@ResponseBody
+	@RequestMapping("/deadline-test")
+	static class SleepController {
+
+		@GetMapping("/sleep")
+		public String sleep(@RequestParam long millis) throws InterruptedException {
+			Thread.sleep(millis);
+			return "done";
+		}
+	}
+}
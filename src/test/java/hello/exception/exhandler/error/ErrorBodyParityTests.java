@@ -0,0 +1,174 @@
+package hello.exception.exhandler.error;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.ErrorProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.servlet.error.BasicErrorController;
+import org.springframework.boot.autoconfigure.web.servlet.error.ErrorViewResolver;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.error.DefaultErrorAttributes;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+*   FlyweightErrorController(ErrorBody + ErrorBodyWriter)의 JSON 이
+*   BasicErrorController(DefaultErrorAttributes + Boot 의 ObjectMapper)의 JSON 과 글자 단위로 같은지 비교한다.
+*   timestamp 는 만든 시각만 다르므로 형식과 시각 차이를 따로 확인한 다음 같은 값으로 바꿔서 비교한다.
+* */
+@SpringBootTest
+class ErrorBodyParityTests {
+
+	private static final Pattern TIMESTAMP = Pattern.compile("\"timestamp\":\"([^\"]*)\"");
+	private static final String ESCAPES = "따옴표\" 역슬래시\\ 슬래시/ 줄바꿈\n\r 탭\t 제어문자\b\f\u0001\u001f 끝";
+
+	@Autowired
+	ServerProperties serverProperties;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	FlyweightErrorController flyweightErrorController;
+
+	@Autowired
+	ApplicationContext applicationContext;
+
+	@Test
+	void exceptionWithMessage() throws Exception {
+		assertSameJson(repoSettings(), request(500, new RuntimeException("잘못된 사용자")));
+	}
+
+	@Test
+	void messageEscaping() throws Exception {
+		assertSameJson(repoSettings(), request(500, new IllegalArgumentException(ESCAPES)));
+	}
+
+	@Test
+	void stackTraceOnParam() throws Exception {
+		MockHttpServletRequest request = request(500, new RuntimeException("잘못된 사용자"));
+		request.setParameter("trace", "true");
+		assertSameJson(repoSettings(), request);
+	}
+
+	@Test
+	void sendErrorMessageWithoutException() throws Exception {
+		MockHttpServletRequest request = request(400, null);
+		request.setAttribute(RequestDispatcher.ERROR_MESSAGE, "잘못된 입력 값");
+		assertSameJson(repoSettings(), request);
+	}
+
+	@Test
+	void noMessageAvailable() throws Exception {
+		assertSameJson(repoSettings(), request(404, null));
+	}
+
+	@Test
+	void servletExceptionIsUnwrapped() throws Exception {
+		assertSameJson(repoSettings(), request(500, new ServletException(new IllegalStateException("원인"))));
+	}
+
+	@Test
+	void exceptionResolvedByDefaultErrorAttributes() throws Exception {
+		MockHttpServletRequest request = request(500, null);
+		new DefaultErrorAttributes().resolveException(request, null, null, new RuntimeException("저장된 예외"));
+		assertSameJson(repoSettings(), request);
+	}
+
+	@Test
+	void unknownStatus() throws Exception {
+		MockHttpServletRequest request = request(500, null);
+		request.removeAttribute(RequestDispatcher.ERROR_STATUS_CODE);
+		assertSameJson(repoSettings(), request);
+	}
+
+	@Test
+	void messageAndExceptionExcluded() throws Exception {
+		ServerProperties defaults = new ServerProperties();
+		defaults.getError().setIncludeException(false);
+		defaults.getError().setIncludeMessage(ErrorProperties.IncludeAttribute.NEVER);
+		defaults.getError().setIncludeStacktrace(ErrorProperties.IncludeAttribute.NEVER);
+		assertSameJson(defaults, request(500, new RuntimeException("숨겨야 하는 메시지")));
+	}
+
+	@Test
+	void errorPageApiKeepsNullMessage() throws Exception {
+		ErrorBody body = ErrorBody.reuse();
+		body.setStatus(500);
+		body.includeNullMessage();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		new ErrorBodyWriter().write(body, response);
+
+		assertThat(objectMapper.readTree(response.getContentAsString()))
+				.isEqualTo(objectMapper.readTree("{\"status\":500,\"message\":null}"));
+	}
+
+	private ServerProperties repoSettings() {
+		return serverProperties;
+	}
+
+	private MockHttpServletRequest request(int status, Throwable exception) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/error");
+		request.setAttribute(RequestDispatcher.ERROR_STATUS_CODE, status);
+		request.setAttribute(RequestDispatcher.ERROR_REQUEST_URI, "/api/members/ex");
+		if (exception != null) {
+			request.setAttribute(RequestDispatcher.ERROR_EXCEPTION, exception);
+		}
+		return request;
+	}
+
+	private void assertSameJson(ServerProperties properties, MockHttpServletRequest request) throws Exception {
+		String expected = basicJson(properties, request);
+		String actual = flyweightJson(properties, request);
+
+		OffsetDateTime expectedTime = timestamp(expected);
+		OffsetDateTime actualTime = timestamp(actual);
+		assertThat(actualTime.getOffset()).isEqualTo(expectedTime.getOffset());
+		assertThat(Math.abs(actualTime.toInstant().toEpochMilli() - expectedTime.toInstant().toEpochMilli())).isLessThan(5_000);
+
+		assertThat(normalize(actual)).isEqualTo(normalize(expected));
+	}
+
+	private String basicJson(ServerProperties properties, MockHttpServletRequest request) throws Exception {
+		BasicErrorController controller = new BasicErrorController(new DefaultErrorAttributes(), properties.getError());
+		ResponseEntity<Map<String, Object>> entity = controller.error(request);
+		return objectMapper.writeValueAsString(entity.getBody());
+	}
+
+	private String flyweightJson(ServerProperties properties, MockHttpServletRequest request) throws Exception {
+		FlyweightErrorController controller = properties == serverProperties
+				? flyweightErrorController
+				: new FlyweightErrorController(new FlyweightErrorAttributes(), new ErrorBodyWriter(), properties,
+						objectMapper, applicationContext.getBeanProvider(ErrorViewResolver.class));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.error(request, response);
+		return response.getContentAsString();
+	}
+
+	private static OffsetDateTime timestamp(String json) {
+		Matcher matcher = TIMESTAMP.matcher(json);
+		assertThat(matcher.find()).as("timestamp in %s", json).isTrue();
+		String value = matcher.group(1);
+		assertThat(value).matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}[+-]\\d{2}:\\d{2}");
+		return OffsetDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+	}
+
+	private static String normalize(String json) {
+		return TIMESTAMP.matcher(json).replaceFirst("\"timestamp\":\"-\"");
+	}
+
+}
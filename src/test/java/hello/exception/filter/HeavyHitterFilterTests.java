@@ -0,0 +1,70 @@
+package hello.exception.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHitterFilterTests {
+
+	private static final String PROXY = "10.0.0.1";
+	private static final String INNER_PROXY = "10.0.0.2";
+
+	private final HeavyHitterFilter filter = new HeavyHitterFilter(4, 1024, 8, 3, 60_000, Set.of(PROXY, INNER_PROXY));
+
+	@Test
+	void forwardedForFromUntrustedCallerIsIgnored() {
+		assertThat(filter.clientOf(request("203.0.113.7", "198.51.100.1"))).isEqualTo("203.0.113.7");
+	}
+
+	@Test
+	void rightMostUntrustedHopIsTheClient() {
+		// 클라이언트가 198.51.100.1 을 써 넣었고, 밸런서가 실제 주소 203.0.113.7 을 덧붙였다.
+		assertThat(filter.clientOf(request(PROXY, "198.51.100.1, 203.0.113.7"))).isEqualTo("203.0.113.7");
+	}
+
+	@Test
+	void trustedHopsAreSkipped() {
+		assertThat(filter.clientOf(request(PROXY, "198.51.100.1, 203.0.113.7, " + INNER_PROXY))).isEqualTo("203.0.113.7");
+	}
+
+	@Test
+	void multipleHeaderLinesAreJoinedInOrder() {
+		MockHttpServletRequest request = request(PROXY, "198.51.100.1");
+		request.addHeader("X-Forwarded-For", "203.0.113.7");
+		assertThat(filter.clientOf(request)).isEqualTo("203.0.113.7");
+	}
+
+	@Test
+	void trustedProxyWithoutForwardedForIsTheClient() {
+		assertThat(filter.clientOf(request(PROXY, null))).isEqualTo(PROXY);
+		assertThat(filter.clientOf(request(PROXY, " , "))).isEqualTo(PROXY);
+	}
+
+	@Test
+	void rotatingSpoofedAddressesDoesNotEscapeTheBudget() throws Exception {
+		int status = 0;
+		for (int i = 0; i < 10; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(request(PROXY, "198.51.100." + i + ", 203.0.113.7"), response,
+					(req, res) -> ((HttpServletResponse) res).setStatus(400));
+			status = response.getStatus();
+		}
+		assertThat(status).isEqualTo(429);
+		assertThat(filter.topOffenders()).extracting(HeavyHitter::getClient).containsExactly("203.0.113.7");
+	}
+
+	private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/members/bad");
+		request.setRemoteAddr(remoteAddr);
+		if (forwardedFor != null) {
+			request.addHeader("X-Forwarded-For", forwardedFor);
+		}
+		return request;
+	}
+
+}
@@ -0,0 +1,122 @@
+package hello.exception.interceptor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+*   CompiledPathMatcher 의 결과를 PathPattern(패턴을 검증할 때 쓰는 기준)과 AntPathMatcher 로 한 결과와 비교한다.
+* */
+class CompiledPathMatcherTests {
+
+	static final List<String> URIS = List.of(
+			"/", "/error", "/error/", "/error-page/404", "/error-page/500", "/error-page/500/detail",
+			"/favicon.ico", "/img/favicon.ico", "/icons/app.ico", "/ico", "/x.icon",
+			"/css/main.css", "/css/", "/css", "/css/theme/dark.css", "/cssx/main.css",
+			"/api/members/spring", "/api/members/ex", "/api/members/bad", "/api/members/user-ex",
+			"/api2/members/ex", "/api3/members/user-ex", "/api/members", "/api/members/", "/api/members/a/b",
+			"/api/response-status-ex1", "/api/response-status-ex2", "/api/default-handler-ex",
+			"/error-ex", "/error-404", "/error-500", "/internal/ready", "/internal/slow-requests",
+			"/internal/error-counters/reset", "/images/logo-1.png", "/images/logo.png", "/images/x/logo-1.png",
+			"/a//b", "/api/members/%7Bid%7D");
+
+	static final List<String> PATTERNS = List.of(
+			"/**", "/", "/error", "/error/", "/error-page/**", "/css/**", "/*.ico", "*.ico",
+			"/api/*", "/api/members/*", "/api*/members/*", "/api/members/{id}", "/api/**", "/api/members/**",
+			"/internal/**", "/images/logo-*.png", "/images/*-1.png", "/error-?0?", "/*",
+			"/*/members/*", "/api/members/{id:[a-z]+}");
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+	@Test
+	void singleIncludeMatchesPathPattern() {
+		for (String pattern : PATTERNS) {
+			CompiledPathMatcher matcher = CompiledPathMatcher.compile(List.of(pattern), List.of());
+			PathPattern expected = parser.parse(pattern.startsWith("/") ? pattern : "/" + pattern);
+			for (String uri : URIS) {
+				assertThat(matcher.matches(uri))
+						.as("include %s on %s", pattern, uri)
+						.isEqualTo(expected.matches(PathContainer.parsePath(uri)));
+			}
+		}
+	}
+
+	@Test
+	void includeAndExcludeCombinationsMatchPathPattern() {
+		for (String include : PATTERNS) {
+			for (String exclude : PATTERNS) {
+				CompiledPathMatcher matcher = CompiledPathMatcher.compile(List.of(include), List.of(exclude));
+				for (String uri : URIS) {
+					assertThat(matcher.matches(uri))
+							.as("include %s exclude %s on %s", include, exclude, uri)
+							.isEqualTo(pathPattern(List.of(include), List.of(exclude), uri));
+				}
+			}
+		}
+	}
+
+	@Test
+	void repoInterceptorConfigurationMatchesPathPatternAndAntPathMatcher() {
+		List<String> includes = List.of("/**");
+		List<String> excludes = List.of("/css/**", "*.ico", "/error", "/error-page/**");
+		CompiledPathMatcher matcher = CompiledPathMatcher.compile(includes, excludes);
+
+		AntPathMatcher ant = new AntPathMatcher();
+		List<String> antExcludes = new ArrayList<>();
+		for (String exclude : excludes) {
+			antExcludes.add(exclude.startsWith("/") ? exclude : "/" + exclude);
+		}
+
+		for (String uri : URIS) {
+			boolean compiled = matcher.matches(uri);
+			assertThat(compiled).as(uri).isEqualTo(pathPattern(includes, excludes, uri));
+			if (!uri.endsWith("/") && !uri.contains("//")) {
+				// AntPathMatcher 는 끝의 / 와 빈 세그먼트를 다르게 다루므로 그 경우만 비교에서 뺀다.
+				boolean antMatch = includes.stream().anyMatch(p -> ant.match(p, uri))
+						&& antExcludes.stream().noneMatch(p -> ant.match(p, uri));
+				assertThat(compiled).as("ant %s", uri).isEqualTo(antMatch);
+			}
+		}
+	}
+
+	@Test
+	void invalidPatternsFailAtStartup() {
+		assertThatThrownBy(() -> CompiledPathMatcher.compile(List.of("/**/*.ico"), List.of()))
+				.isInstanceOf(PatternParseException.class);
+		assertThatThrownBy(() -> CompiledPathMatcher.compile(List.of("/**"), List.of("/api/{id")))
+				.isInstanceOf(PatternParseException.class);
+	}
+
+	@Test
+	void offsetSkipsContextPath() {
+		CompiledPathMatcher matcher = CompiledPathMatcher.compile(List.of("/api/**"), List.of("/api/members/ex"));
+		assertThat(matcher.matches("/app/api/members/bad", "/app".length())).isTrue();
+		assertThat(matcher.matches("/app/api/members/ex", "/app".length())).isFalse();
+		assertThat(matcher.matches("/app/css/main.css", "/app".length())).isFalse();
+	}
+
+	private boolean pathPattern(List<String> includes, List<String> excludes, String uri) {
+		PathContainer path = PathContainer.parsePath(uri);
+		for (String exclude : excludes) {
+			if (parser.parse(exclude.startsWith("/") ? exclude : "/" + exclude).matches(path)) {
+				return false;
+			}
+		}
+		for (String include : includes) {
+			if (parser.parse(include.startsWith("/") ? include : "/" + include).matches(path)) {
+				return true;
+			}
+		}
+		return includes.isEmpty();
+	}
+
+}
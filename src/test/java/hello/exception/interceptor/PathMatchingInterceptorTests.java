@@ -0,0 +1,58 @@
+package hello.exception.interceptor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathMatchingInterceptorTests {
+
+	private final List<String> called = new ArrayList<>();
+
+	private final PathMatchingInterceptor interceptor = new PathMatchingInterceptor(new HandlerInterceptor() {
+		@Override
+		public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+			called.add(request.getRequestURI());
+			return true;
+		}
+	}, CompiledPathMatcher.compile(List.of("/**"), List.of("/css/**", "*.ico", "/error", "/error-page/**")));
+
+	@Test
+	void matchesDecodedLookupPathWithoutPathParameters() throws Exception {
+		preHandle(request("", "/error-page/500;jsessionid=x"));
+		preHandle(request("", "/%63ss/main.css"));
+		preHandle(request("", "/favicon.ico;v=2"));
+		preHandle(request("/app", "/app/error"));
+		preHandle(request("", "/api/members/ex;jsessionid=x"));
+
+		assertThat(called).containsExactly("/api/members/ex;jsessionid=x");
+	}
+
+	@Test
+	void usesLookupPathResolvedByHandlerMapping() throws Exception {
+		MockHttpServletRequest request = request("", "/api/members/ex");
+		request.setAttribute(UrlPathHelper.PATH_ATTRIBUTE, "/error");
+		preHandle(request);
+
+		assertThat(called).isEmpty();
+	}
+
+	private void preHandle(MockHttpServletRequest request) throws Exception {
+		assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object())).isTrue();
+	}
+
+	private static MockHttpServletRequest request(String contextPath, String requestUri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+		request.setContextPath(contextPath);
+		return request;
+	}
+
+}
@@ -0,0 +1,228 @@
+package hello.exception.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+*   같은 디렉토리를 여는 SharedErrorCounters 두 개로 여러 인스턴스가 카운터 파일을 공유하는 상황을 만든다.
+*   (같은 JVM 이라 pid 는 같지만 instance 슬롯과 counter 슬롯은 파일 위에서만 공유된다.)
+* */
+class SharedErrorCountersTests {
+
+	private static final long NO_HEARTBEAT = 60_000;
+
+	@TempDir
+	Path directory;
+
+	private final List<SharedErrorCounters> opened = new ArrayList<>();
+
+	@AfterEach
+	void close() throws IOException {
+		for (SharedErrorCounters counters : opened) {
+			counters.close();
+		}
+	}
+
+	@Test
+	void concurrentIncrementsFromTwoInstancesClaimOneSlotPerKey() throws Exception {
+		SharedErrorCounters first = open(NO_HEARTBEAT, NO_HEARTBEAT);
+		SharedErrorCounters second = open(NO_HEARTBEAT, NO_HEARTBEAT);
+
+		int threads = 8;
+		int perThread = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			SharedErrorCounters counters = t % 2 == 0 ? first : second;
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					if (i % 2 == 0) {
+						counters.increment(new RuntimeException(), 500);
+					} else {
+						counters.increment(new IllegalArgumentException(), 400);
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		long half = (long) threads * perThread / 2;
+		for (SharedErrorCounters counters : List.of(first, second)) {
+			ErrorCountersSnapshot snapshot = counters.snapshot();
+			assertThat(snapshot.getExceptions())
+					.containsEntry(RuntimeException.class.getName(), half)
+					.containsEntry(IllegalArgumentException.class.getName(), half)
+					.hasSize(2);
+			assertThat(snapshot.getStatuses())
+					.containsEntry("500", half)
+					.containsEntry("400", half)
+					.hasSize(2);
+			assertThat(snapshot.getLiveInstances()).isEqualTo(2);
+		}
+		assertThat(first.getDropped()).isZero();
+		assertThat(second.getDropped()).isZero();
+	}
+
+	@Test
+	void resetFromOtherInstanceStartsNewEpoch() throws Exception {
+		SharedErrorCounters first = open(NO_HEARTBEAT, NO_HEARTBEAT);
+		SharedErrorCounters second = open(NO_HEARTBEAT, NO_HEARTBEAT);
+
+		for (int i = 0; i < 5; i++) {
+			first.increment(new RuntimeException(), 500);
+		}
+		long epoch = second.snapshot().getEpoch();
+		second.reset();
+
+		ErrorCountersSnapshot afterReset = first.snapshot();
+		assertThat(afterReset.getEpoch()).isEqualTo(epoch + 1);
+		assertThat(afterReset.getExceptions()).isEmpty();
+		assertThat(afterReset.getStatuses()).isEmpty();
+
+		first.increment(new RuntimeException(), 500);
+		second.increment(new RuntimeException(), 500);
+		assertThat(second.snapshot().getExceptions()).containsEntry(RuntimeException.class.getName(), 2L);
+		assertThat(second.snapshot().getStatuses()).containsEntry("500", 2L);
+	}
+
+	@Test
+	void countsAfterConcurrentResetOnlyIncludeIncrementsOfNewEpoch() throws Exception {
+		SharedErrorCounters first = open(NO_HEARTBEAT, NO_HEARTBEAT);
+		SharedErrorCounters second = open(NO_HEARTBEAT, NO_HEARTBEAT);
+
+		int threads = 4;
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicLong started = new AtomicLong();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(executor.submit(() -> {
+				while (running.get()) {
+					started.incrementAndGet();
+					first.increment(new RuntimeException(), 500);
+				}
+			}));
+		}
+
+		try {
+			for (int round = 0; round < 200; round++) {
+				long before = started.get();
+				second.reset();
+				ErrorCountersSnapshot snapshot = second.snapshot();
+				long after = started.get();
+
+				// 새 epoch 의 count 는 reset 이후에 시작한 증가(+ 진행 중이던 스레드 수)보다 클 수 없다.
+				long bound = after - before + threads;
+				assertThat(snapshot.getExceptions().getOrDefault(RuntimeException.class.getName(), 0L))
+						.isLessThanOrEqualTo(bound);
+				assertThat(snapshot.getStatuses().getOrDefault("500", 0L))
+						.isLessThanOrEqualTo(bound);
+			}
+		} finally {
+			running.set(false);
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+			executor.shutdown();
+		}
+
+		second.reset();
+		for (int i = 0; i < 1_000; i++) {
+			first.increment(new RuntimeException(), 500);
+		}
+		assertThat(second.snapshot().getExceptions()).containsEntry(RuntimeException.class.getName(), 1_000L);
+	}
+
+	@Test
+	void staleInstanceSlotIsTakenOver() throws Exception {
+		long staleAfterMillis = 50;
+		SharedErrorCounters stale = open(NO_HEARTBEAT, staleAfterMillis);
+		assertThat(stale.instanceSlot()).isZero();
+
+		Thread.sleep(staleAfterMillis * 4);
+		assertThat(stale.snapshot().getLiveInstances()).isZero();
+
+		SharedErrorCounters next = open(NO_HEARTBEAT, staleAfterMillis);
+		assertThat(next.instanceSlot()).isZero();
+		assertThat(next.snapshot().getLiveInstances()).isEqualTo(1);
+
+		SharedErrorCounters live = open(NO_HEARTBEAT, NO_HEARTBEAT);
+		assertThat(live.instanceSlot()).isEqualTo(1);
+	}
+
+	@Test
+	void halfInitializedFileIsTakenOver() throws Exception {
+		// 헤더를 claim 한 다음 READY 를 쓰기 전에 죽은 인스턴스가 남긴 파일
+		ByteBuffer claim = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+		claim.putLong(0, SharedErrorCounters.initializingClaim(12345));
+		try (FileChannel channel = FileChannel.open(directory.resolve("error-counters.dat"),
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+			channel.write(claim, SharedErrorCounters.INIT_STATE_OFFSET);
+		}
+
+		long staleAfterMillis = 100;
+		long started = System.currentTimeMillis();
+		SharedErrorCounters recovered = open(NO_HEARTBEAT, staleAfterMillis);
+		assertThat(System.currentTimeMillis() - started).isGreaterThanOrEqualTo(staleAfterMillis);
+
+		recovered.increment(new RuntimeException(), 500);
+		assertThat(recovered.snapshot().getStatuses()).containsEntry("500", 1L);
+
+		// 다음 인스턴스는 기다리지 않고 같은 카운터를 본다.
+		SharedErrorCounters next = open(NO_HEARTBEAT, NO_HEARTBEAT);
+		assertThat(next.snapshot().getStatuses()).containsEntry("500", 1L);
+	}
+
+	@Test
+	void longExceptionNameKeepsPrefixAndSimpleName() throws Exception {
+		SharedErrorCounters counters = open(NO_HEARTBEAT, NO_HEARTBEAT);
+		String name = AVeryLongExceptionNameThatDoesNotFitIntoTheFixedNameCapacityOfTheCounterSlot.class.getName();
+		assertThat(name.length()).isGreaterThan(SharedErrorCounters.NAME_CAPACITY);
+
+		counters.increment(new AVeryLongExceptionNameThatDoesNotFitIntoTheFixedNameCapacityOfTheCounterSlot(), 500);
+
+		ErrorCountersSnapshot snapshot = counters.snapshot();
+		assertThat(snapshot.getExceptions()).hasSize(1);
+		String stored = snapshot.getExceptions().keySet().iterator().next();
+		assertThat(name).endsWith(stored);
+		assertThat(stored).endsWith("$AVeryLongExceptionNameThatDoesNotFitIntoTheFixedNameCapacityOfTheCounterSlot");
+		assertThat(stored.length() + "ex:".length()).isEqualTo(SharedErrorCounters.NAME_CAPACITY);
+		assertThat(snapshot.getStatuses()).containsEntry("500", 1L);
+	}
+
+	private SharedErrorCounters open(long heartbeatMillis, long staleAfterMillis) throws IOException {
+		SharedErrorCounters counters = new SharedErrorCounters(directory, heartbeatMillis, staleAfterMillis);
+		opened.add(counters);
+		return counters;
+	}
+
+	static class AVeryLongExceptionNameThatDoesNotFitIntoTheFixedNameCapacityOfTheCounterSlot extends RuntimeException {
+	}
+
+}
@@ -0,0 +1,39 @@
+package hello.exception.timeline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineFilterTests {
+
+	private final SlowestRequests slowestRequests = new SlowestRequests(10, 16);
+	private final TimelineFilter filter = new TimelineFilter(slowestRequests);
+
+	@Test
+	void missingErrorDispatchIsClosedAtRequestEnd() throws Exception {
+		// sendError() 를 호출했지만 ERROR 재요청이 오지 않았다.
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/members/bad"), new MockHttpServletResponse(),
+				(request, response) -> ((HttpServletResponse) response).sendError(400));
+
+		long idleMillis = 300;
+		Thread.sleep(idleMillis);
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/members/spring"), new MockHttpServletResponse(),
+				(request, response) -> {
+				});
+
+		List<TimelineSnapshot> unmapped = slowestRequests.dump().get("unmapped");
+		assertThat(unmapped).hasSize(2);
+		for (TimelineSnapshot snapshot : unmapped) {
+			assertThat(snapshot.getTotalNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(idleMillis));
+		}
+		assertThat(unmapped).extracting(TimelineSnapshot::getStatus).containsExactlyInAnyOrder(400, 200);
+	}
+
+}
@@ -0,0 +1,72 @@
+package hello.exception.timeline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.RequestDispatcher;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+*   MockMvc 로 오류 요청을 보내고 SlowestRequests 에 기록된 단계를 확인한다.
+*   MockMvc 는 ERROR 재요청을 하지 않으므로 오류 화면 경로는 WAS 처럼 같은 스레드에서 /error 를 ERROR 로 이어서 보낸다.
+* */
+@SpringBootTest(properties = {
+		"hello.exception.heavy-hitter.enabled=false",
+		"logging.level.hello.exception=off"
+})
+@AutoConfigureMockMvc
+class TimelineStagesTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	SlowestRequests slowestRequests;
+
+	@Test
+	void exceptionHandledByAdvice() throws Exception {
+		mockMvc.perform(get("/api3/members/ex").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isInternalServerError());
+
+		TimelineSnapshot snapshot = latest("GET /api3/members/{id}");
+		assertThat(snapshot.getStatus()).isEqualTo(500);
+		assertThat(snapshot.getStageNanos()).containsOnlyKeys(
+				"REQUEST_START", "PRE_HANDLE", "HANDLER", "RESOLVER", "ADVICE", "REQUEST_END");
+	}
+
+	@Test
+	void errorViewRenderedOnErrorDispatch() throws Exception {
+		mockMvc.perform(get("/error-500").accept(MediaType.TEXT_HTML))
+				.andExpect(status().isInternalServerError());
+
+		mockMvc.perform(get("/error").accept(MediaType.TEXT_HTML)
+						.requestAttr(RequestDispatcher.ERROR_STATUS_CODE, 500)
+						.requestAttr(RequestDispatcher.ERROR_REQUEST_URI, "/error-500")
+						.with(request -> {
+							request.setDispatcherType(DispatcherType.ERROR);
+							return request;
+						}))
+				.andExpect(status().isInternalServerError());
+
+		TimelineSnapshot snapshot = latest("GET /error-500");
+		assertThat(snapshot.getStatus()).isEqualTo(500);
+		assertThat(snapshot.getStageNanos()).containsOnlyKeys(
+				"REQUEST_START", "PRE_HANDLE", "HANDLER", "REQUEST_END", "ERROR_DISPATCH", "ERROR_HANDLER", "ERROR_RENDER");
+		assertThat(snapshot.getStageNanos().values()).allMatch(nanos -> nanos >= 0);
+	}
+
+	private TimelineSnapshot latest(String endpoint) {
+		List<TimelineSnapshot> snapshots = slowestRequests.dump().get(endpoint);
+		assertThat(snapshots).as(endpoint).isNotEmpty();
+		return snapshots.get(snapshots.size() - 1);
+	}
+}
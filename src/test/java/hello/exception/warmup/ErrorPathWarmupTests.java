@@ -0,0 +1,61 @@
+package hello.exception.warmup;
+
+import hello.exception.metrics.ErrorCounters;
+import hello.exception.timeline.SlowestRequests;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+*   ApplicationReadyEvent 에서 워밍업이 끝난 다음 테스트가 시작된다.
+*   워밍업 요청은 오류 카운터와 느린 요청 목록에 남지 않아야 하고, 일반 요청은 남아야 한다.
+* */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"hello.exception.warmup.enabled=true",
+		"hello.exception.warmup.iterations=3",
+		"hello.exception.warmup.min-iterations=3",
+		"hello.exception.shared-counters.enabled=true",
+		"hello.exception.shared-counters.directory=${java.io.tmpdir}/warmup-test-${random.uuid}"
+})
+class ErrorPathWarmupTests {
+
+	@Autowired
+	ErrorCounters errorCounters;
+
+	@Autowired
+	SlowestRequests slowestRequests;
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Test
+	void warmupRequestsAreNotCountedOrRecorded() {
+		assertThat(errorCounters.snapshot().getExceptions()).isEmpty();
+		assertThat(errorCounters.snapshot().getStatuses()).isEmpty();
+		assertThat(slowestRequests.dump()).isEmpty();
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+		restTemplate.exchange("/api/members/ex", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+		assertThat(errorCounters.snapshot().getExceptions()).containsEntry(RuntimeException.class.getName(), 1L);
+		assertThat(slowestRequests.dump()).containsKey("GET /api/members/{id}");
+
+		// 밸런서를 거쳐 온 X-Warmup 헤더는 믿지 않는다.
+		headers.set(ErrorPathWarmup.WARMUP_HEADER, "true");
+		headers.set("X-Forwarded-For", "203.0.113.7");
+		restTemplate.exchange("/api/members/bad", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+		assertThat(errorCounters.snapshot().getExceptions()).containsEntry(IllegalArgumentException.class.getName(), 1L);
+	}
+
+}